@@ -0,0 +1,117 @@
+package org.schematik.api;
+
+import com.google.gson.reflect.TypeToken;
+import io.javalin.http.ContentType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.schematik.api.codec.CborMediaCodec;
+import org.schematik.gson.GsonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning request values into controller arguments: path and query parameter conversion, and reading
+ * {@code @RequestBody} parameters, both as a single object and element by element, and from a CBOR body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark {
+    public static class Item {
+        int id;
+        String name;
+        double price;
+        List<String> tags;
+    }
+
+    private static final Type ITEM_LIST_TYPE = new TypeToken<List<Item>>() {}.getType();
+
+    MethodHandle intConverter;
+    MethodHandle bigDecimalConverter;
+    MethodHandle localDateConverter;
+
+    byte[] itemBody;
+    byte[] itemArrayBody;
+    byte[] cborItemArrayBody;
+
+    @Setup
+    public void setup() throws IOException {
+        intConverter = ParameterConverters.forType(int.class, "id");
+        bigDecimalConverter = ParameterConverters.forType(BigDecimal.class, "amount");
+        localDateConverter = ParameterConverters.forType(LocalDate.class, "date");
+
+        String item = "{\"id\":42,\"name\":\"Sample item\",\"price\":19.99,\"tags\":[\"a\",\"b\",\"c\"]}";
+        itemBody = item.getBytes(StandardCharsets.UTF_8);
+
+        StringBuilder items = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append(item);
+        }
+        items.append(']');
+        itemArrayBody = items.toString().getBytes(StandardCharsets.UTF_8);
+
+        List<Item> itemList = GsonUtils.getDefaultGson().fromJson(items.toString(), ITEM_LIST_TYPE);
+        cborItemArrayBody = RestApiConfig.encode(CborMediaCodec.INSTANCE, itemList);
+    }
+
+    @Benchmark
+    public int convertInt() throws Throwable {
+        return (int) intConverter.invokeExact("12345");
+    }
+
+    @Benchmark
+    public BigDecimal convertBigDecimal() throws Throwable {
+        return (BigDecimal) bigDecimalConverter.invokeExact("12345.67");
+    }
+
+    @Benchmark
+    public LocalDate convertLocalDate() throws Throwable {
+        return (LocalDate) localDateConverter.invokeExact("2024-02-29");
+    }
+
+    @Benchmark
+    public Object readBody() {
+        return RouteBinding.readBody(new ByteArrayInputStream(itemBody), ContentType.JSON, Item.class);
+    }
+
+    @Benchmark
+    public Object readArrayBody() {
+        return RouteBinding.readBody(new ByteArrayInputStream(itemArrayBody), ContentType.JSON, ITEM_LIST_TYPE);
+    }
+
+    @Benchmark
+    public Object readCborArrayBody() {
+        return RouteBinding.readBody(
+                new ByteArrayInputStream(cborItemArrayBody),
+                CborMediaCodec.MEDIA_TYPE,
+                ITEM_LIST_TYPE
+        );
+    }
+
+    @Benchmark
+    public void iterateArrayBody(Blackhole blackhole) {
+        Iterator<Item> items = RouteBinding.openBodyIterator(
+                new ByteArrayInputStream(itemArrayBody),
+                ContentType.JSON,
+                Item.class
+        );
+        while (items.hasNext()) {
+            blackhole.consume(items.next());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.schematik.api;
+
+import com.google.gson.stream.JsonWriter;
+import org.openjdk.jmh.annotations.*;
+import org.schematik.api.codec.CborMediaCodec;
+import org.schematik.gson.GsonUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization work done by {@code RestApiConfig.sendResponse} for scalar, object and large collection return values.
+ * Large collections are written to a discarding output stream, the way they are streamed to the response, both as
+ * json and as CBOR.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+    public static class Item {
+        int id;
+        String name;
+        double price;
+        LocalDate createdOn;
+        List<String> tags;
+
+        Item(int id) {
+            this.id = id;
+            this.name = "Item " + id;
+            this.price = id * 1.25;
+            this.createdOn = LocalDate.of(2024, 1, 1).plusDays(id % 365);
+            this.tags = List.of("a", "b", "c");
+        }
+    }
+
+    @Param({ "100000" })
+    int collectionSize;
+
+    Integer scalar;
+    Item object;
+    List<Item> collection;
+
+    @Setup
+    public void setup() {
+        scalar = 42;
+        object = new Item(42);
+
+        collection = new ArrayList<>(collectionSize);
+        for (int i = 0; i < collectionSize; i++) {
+            collection.add(new Item(i));
+        }
+    }
+
+    @Benchmark
+    public String scalar() {
+        return RestApiConfig.typedObjectToString(scalar.getClass(), scalar);
+    }
+
+    @Benchmark
+    public String object() {
+        return GsonUtils.getDefaultGson().toJson(object, object.getClass());
+    }
+
+    @Benchmark
+    public void largeCollection() throws IOException {
+        JsonWriter writer = new JsonWriter(new BufferedWriter(
+                new OutputStreamWriter(OutputStream.nullOutputStream(), StandardCharsets.UTF_8)
+        ));
+        RestApiConfig.writeJsonArray(writer, collection);
+        writer.flush();
+    }
+
+    @Benchmark
+    public void largeCollectionCbor() throws IOException {
+        JsonWriter writer = CborMediaCodec.INSTANCE.newWriter(OutputStream.nullOutputStream());
+        RestApiConfig.writeJsonArray(writer, collection);
+        writer.flush();
+    }
+}
@@ -0,0 +1,75 @@
+package org.schematik.api;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of calling a controller method once its arguments are bound: the route invoker used by
+ * {@link RestApiConfig} against plain reflection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteDispatchBenchmark {
+    public static class SampleController {
+        public String get() {
+            return "Hello World";
+        }
+
+        public int getId(int id) {
+            return id;
+        }
+    }
+
+    SampleController controller;
+
+    Method getMethod;
+    Method getIdMethod;
+
+    RouteInvoker getInvoker;
+    RouteInvoker getIdInvoker;
+
+    Object[] noArguments = new Object[0];
+    Object[] rawIdArguments = { "42" };
+
+    @Setup
+    public void setup() throws Exception {
+        controller = new SampleController();
+
+        getMethod = SampleController.class.getMethod("get");
+        getIdMethod = SampleController.class.getMethod("getId", int.class);
+
+        getInvoker = new MethodHandleRouteInvoker(getMethod, controller, new MethodHandle[0]);
+        getIdInvoker = new MethodHandleRouteInvoker(
+                getIdMethod,
+                controller,
+                new MethodHandle[] { ParameterConverters.forType(int.class, "id") }
+        );
+    }
+
+    @Benchmark
+    public Object reflectiveNoArguments() throws Exception {
+        return getMethod.invoke(controller, noArguments);
+    }
+
+    @Benchmark
+    public Object invokerNoArguments() throws Exception {
+        return getInvoker.invoke(noArguments);
+    }
+
+    @Benchmark
+    public Object reflectivePathParameter() throws Exception {
+        return getIdMethod.invoke(controller, Integer.parseInt((String) rawIdArguments[0]));
+    }
+
+    @Benchmark
+    public Object invokerPathParameter() throws Exception {
+        return getIdInvoker.invoke(rawIdArguments);
+    }
+}
@@ -0,0 +1,39 @@
+package org.schematik.gson;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding of {@link LocalDate} values through {@link LocalDateAdapter}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocalDateAdapterBenchmark {
+    Gson gson;
+    LocalDate date;
+    String json;
+
+    @Setup
+    public void setup() {
+        gson = GsonUtils.getDefaultGson();
+        date = LocalDate.of(2024, 2, 29);
+        json = gson.toJson(date);
+    }
+
+    @Benchmark
+    public String encode() {
+        return gson.toJson(date);
+    }
+
+    @Benchmark
+    public LocalDate decode() {
+        return gson.fromJson(json, LocalDate.class);
+    }
+}
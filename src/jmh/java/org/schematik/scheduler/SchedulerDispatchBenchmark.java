@@ -0,0 +1,88 @@
+package org.schematik.scheduler;
+
+import org.openjdk.jmh.annotations.*;
+import org.quartz.JobBuilder;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.impl.StdSchedulerFactory;
+import org.schematik.Application;
+
+import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatch of jobs through Quartz, configured the way {@link JobSchedulerPlugin} configures it: the job store, the
+ * {@link SchedulerMetrics} listeners and the bounded or virtual thread pool. Every operation fires a job and waits until
+ * it has run, so the result is the overhead of one execution, from the trigger to the end of the job.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerDispatchBenchmark {
+    private static final int BATCH_SIZE = 100;
+
+    public static class EmptyJob implements IScheduledJob {
+        static final Semaphore executions = new Semaphore(0);
+
+        @Override
+        public void doJob() {
+        }
+
+        @Override
+        public void exitJob() {
+            executions.release();
+        }
+    }
+
+    @Param({ "bounded", "virtual" })
+    String threadMode;
+
+    Scheduler scheduler;
+    JobKey jobKey;
+
+    @Setup
+    public void setup() throws Exception {
+        Application.applicationProperties = new Properties();
+        Application.applicationProperties.setProperty("scheduler.thread.mode", threadMode);
+
+        Properties props = new Properties();
+        props.setProperty("org.quartz.scheduler.instanceName", "SchedulerDispatchBenchmark");
+        props.setProperty("org.quartz.scheduler.skipUpdateCheck", "true");
+        JobSchedulerPlugin.configureThreadPool(props);
+        JobStoreConfig.configure(props);
+
+        scheduler = new StdSchedulerFactory(props).getScheduler();
+
+        SchedulerMetrics schedulerMetrics = new SchedulerMetrics(scheduler);
+        scheduler.getListenerManager().addJobListener(schedulerMetrics);
+        scheduler.getListenerManager().addTriggerListener(schedulerMetrics);
+
+        jobKey = JobKey.jobKey(EmptyJob.class.getName());
+        scheduler.addJob(JobBuilder.newJob(EmptyJob.class).withIdentity(jobKey).storeDurably().build(), true);
+        scheduler.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        scheduler.shutdown(true);
+    }
+
+    @Benchmark
+    public void dispatchOne() throws Exception {
+        scheduler.triggerJob(jobKey);
+        EmptyJob.executions.acquire();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void dispatchBatch() throws Exception {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            scheduler.triggerJob(jobKey);
+        }
+        EmptyJob.executions.acquire(BATCH_SIZE);
+    }
+}
@@ -0,0 +1,35 @@
+package org.schematik.util.xml;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the XML configuration files read at startup by the plugin and scheduler configuration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class XMLParserBenchmark {
+    String schedulerConfig;
+
+    @Setup
+    public void setup() {
+        StringBuilder config = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<scheduled-tasks>\n");
+        for (int i = 0; i < 50; i++) {
+            config.append("    <task class=\"org.schematik.scheduler.test.MyScheduledJob").append(i).append("\">\n")
+                    .append("        <schedule cron=\"*/5 * * * * ?\"/>\n")
+                    .append("    </task>\n");
+        }
+        config.append("</scheduled-tasks>");
+        schedulerConfig = config.toString();
+    }
+
+    @Benchmark
+    public int parseSchedulerConfig() throws Exception {
+        return XMLParser.parse(schedulerConfig).getElements("task").size();
+    }
+}
@@ -4,10 +4,12 @@ import org.eclipse.jetty.io.ManagedSelector;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.schematik.gson.GsonUtils;
 import org.schematik.jetty.JettyServer;
+import org.schematik.jetty.TrainingRun;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URL;
+import java.util.Arrays;
 import java.util.Enumeration;
 
 public class App {
@@ -19,6 +21,9 @@ public class App {
         logger.info("Starting server...");
 
         JettyServer server = new JettyServer();
+        if (Arrays.asList(args).contains(TrainingRun.ARGUMENT)) {
+            server.setTrainingRun(true);
+        }
         server.start();
 
         Runtime.getRuntime().addShutdownHook(new Thread() {
@@ -0,0 +1,65 @@
+package org.schematik;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall-clock times of the startup phases and of every plugin's registration. Phases may overlap, e.g. controller
+ * discovery runs while the plugins register, so the times don't add up to the total startup time.
+ */
+public class StartupReport {
+    static Logger logger = LoggerFactory.getLogger(StartupReport.class);
+
+    public record Entry(String type, String name, long durationNanos) {
+        public long getDurationMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+    }
+
+    private static final Queue<Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Records a startup phase that started at {@code startedAt} (a {@link System#nanoTime()} value) and ends now.
+     * Returns the current time, so that consecutive phases can be recorded with a single variable.
+     */
+    public static long recordPhase(String name, long startedAt) {
+        return record("phase", name, startedAt);
+    }
+
+    /**
+     * Records the registration of a plugin that started at {@code startedAt} and ends now. Returns the current time.
+     */
+    public static long recordPlugin(String name, long startedAt) {
+        return record("plugin", name, startedAt);
+    }
+
+    private static long record(String type, String name, long startedAt) {
+        long now = System.nanoTime();
+        entries.add(new Entry(type, name, now - startedAt));
+
+        return now;
+    }
+
+    public static List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    public static void log() {
+        StringBuilder report = new StringBuilder(String.format(
+                "Startup finished %d ms after the JVM started:",
+                ManagementFactory.getRuntimeMXBean().getUptime()
+        ));
+        for (Entry entry : entries) {
+            report.append(String.format("%n    %-6s  %-32s %6d ms", entry.type(), entry.name(), entry.getDurationMillis()));
+        }
+
+        logger.info(report.toString());
+    }
+}
@@ -0,0 +1,365 @@
+package org.schematik.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonWriter;
+import io.javalin.Javalin;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpResponseException;
+import io.javalin.http.HttpStatus;
+import io.javalin.router.matcher.PathParser;
+import org.schematik.Application;
+import org.schematik.api.codec.IMediaCodec;
+import org.schematik.api.codec.MediaCodecs;
+import org.schematik.api.limit.AdaptiveConcurrencyLimiter;
+import org.schematik.api.limit.RateLimiter;
+import org.schematik.api.metrics.RouteMetrics;
+import org.schematik.api.security.AuthenticatedPrincipal;
+import org.schematik.gson.GsonUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Endpoint that executes several controller calls sent in one request. The batch is authenticated once, and every
+ * sub-request is then authorized against the roles of the route it calls. Plugins that only implement
+ * {@code authenticate(Context)} check roles themselves, against the roles of the batch endpoint, so routes with roles
+ * can only be called in a batch if the plugin returns the roles of the caller from {@code authenticatePrincipal}. Sub-requests run in parallel, each on its own
+ * virtual thread, unless they depend on each other. The results are written in the order of the sub-requests, every
+ * one as soon as it and the ones before it are complete.
+ * <p>
+ * Sub-requests are not served from response caches, and routes that take the Javalin {@link Context} as a parameter
+ * can't be called in a batch. Before and after handlers that the application registers with Javalin only run for the
+ * batch request, not for its sub-requests.
+ */
+public class BatchEndpoint {
+    static Logger logger = LoggerFactory.getLogger(BatchEndpoint.class);
+
+    private static final Type BATCH_TYPE = new TypeToken<List<BatchRequest>>() {}.getType();
+
+    private static final String FORBIDDEN_MESSAGE = "Forbidden: You don't have access to this resource!";
+
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("schematik-batch-", 0).factory()
+    );
+
+    private record RouteMatcher(Route route, PathParser pathParser) {
+        boolean matches(String httpMethod, String path) {
+            return route.getHttpMethod().equals(httpMethod) && pathParser.matches(path);
+        }
+    }
+
+    private record BatchResult(String id, int status, Map<String, String> headers, JsonElement body) {
+        boolean failed() {
+            return status >= 400;
+        }
+    }
+
+    public static void register(Javalin app, List<Route> routes, IRestApiAuthenticationPlugin authenticationPlugin) {
+        String endpoint = Application.getPropertyOrDefault("api.batch.endpoint", "/batch");
+        int maxRequests = Integer.parseInt(Application.getPropertyOrDefault("api.batch.maxRequests", "50"));
+
+        List<RouteMatcher> routeMatchers = routes.stream()
+                .map(route -> new RouteMatcher(route, new PathParser(route.getEndpoint(), app.unsafeConfig().router)))
+                .toList();
+
+        app.post(endpoint, context -> handle(context, routeMatchers, authenticationPlugin, maxRequests));
+
+        logger.info("Batch requests are accepted at " + endpoint);
+    }
+
+    private static void handle(
+            Context context,
+            List<RouteMatcher> routeMatchers,
+            IRestApiAuthenticationPlugin authenticationPlugin,
+            int maxRequests
+    ) throws IOException {
+        AuthenticatedPrincipal principal = null;
+        if (authenticationPlugin != null) {
+            principal = authenticationPlugin.authenticatePrincipal(context);
+            if (principal == null) {
+                context.status(HttpStatus.UNAUTHORIZED);
+                context.result(FORBIDDEN_MESSAGE);
+                return;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<BatchRequest> requests = (List<BatchRequest>) RouteBinding.readBody(context, BATCH_TYPE);
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestResponse("A batch must contain at least one request");
+        }
+        if (requests.size() > maxRequests) {
+            throw new BadRequestResponse(String.format("A batch can contain at most %d requests", maxRequests));
+        }
+
+        List<CompletableFuture<BatchResult>> results = schedule(context, requests, routeMatchers, principal);
+
+        IMediaCodec codec = MediaCodecs.forAccept(context.header(Header.ACCEPT));
+        context.header(Header.VARY, Header.ACCEPT);
+        context.contentType(codec.getMediaType());
+
+        JsonWriter writer = codec.newWriter(context.outputStream());
+        writer.beginArray();
+        for (CompletableFuture<BatchResult> result : results) {
+            writeResult(writer, result.join());
+            writer.flush();
+        }
+        writer.endArray();
+        writer.flush();
+    }
+
+    /**
+     * Starts the sub-requests of a batch, each one once the sub-requests it depends on are complete. Sub-requests can
+     * only depend on sub-requests that come before them, so the dependencies can't form a cycle. Nothing is started if
+     * the batch is invalid.
+     */
+    private static List<CompletableFuture<BatchResult>> schedule(
+            Context context,
+            List<BatchRequest> requests,
+            List<RouteMatcher> routeMatchers,
+            AuthenticatedPrincipal principal
+    ) {
+        CompletableFuture<Void> started = new CompletableFuture<>();
+        Map<String, CompletableFuture<BatchResult>> resultsById = new HashMap<>();
+        List<CompletableFuture<BatchResult>> results = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            BatchRequest request = requests.get(i);
+            if (request == null) {
+                throw new BadRequestResponse(String.format("Request %d of the batch is empty", i));
+            }
+
+            String id = request.id != null ? request.id : String.valueOf(i);
+            if (resultsById.containsKey(id)) {
+                throw new BadRequestResponse(String.format("Request id %s is used more than once", id));
+            }
+
+            List<CompletableFuture<BatchResult>> dependencies = new ArrayList<>();
+            if (request.dependsOn != null) {
+                for (String dependencyId : request.dependsOn) {
+                    CompletableFuture<BatchResult> dependency = resultsById.get(dependencyId);
+                    if (dependency == null) {
+                        throw new BadRequestResponse(String.format(
+                                "Request %s depends on %s, which is not an earlier request of the batch",
+                                id,
+                                dependencyId
+                        ));
+                    }
+                    dependencies.add(dependency);
+                }
+            }
+
+            CompletableFuture<?>[] prerequisites = new CompletableFuture<?>[dependencies.size() + 1];
+            prerequisites[0] = started;
+            for (int j = 0; j < dependencies.size(); j++) {
+                prerequisites[j + 1] = dependencies.get(j);
+            }
+
+            CompletableFuture<BatchResult> result = CompletableFuture.allOf(prerequisites).thenApplyAsync(
+                    ignored -> dependencies.stream().anyMatch(dependency -> dependency.join().failed())
+                            ? errorResult(id, HttpStatus.FAILED_DEPENDENCY.getCode(), "A request this one depends on failed")
+                            : execute(context, id, request, routeMatchers, principal),
+                    executor
+            ).exceptionally(failure -> {
+                // The response is already being streamed, so every sub-request must end with a result
+                logger.error(String.format("Batch request %s failed", id), failure);
+                return errorResult(id, HttpStatus.INTERNAL_SERVER_ERROR.getCode(), "Server Error");
+            });
+
+            resultsById.put(id, result);
+            results.add(result);
+        }
+
+        started.complete(null);
+
+        return results;
+    }
+
+    private static BatchResult execute(
+            Context context,
+            String id,
+            BatchRequest request,
+            List<RouteMatcher> routeMatchers,
+            AuthenticatedPrincipal principal
+    ) {
+        if (request.path == null) {
+            return errorResult(id, HttpStatus.BAD_REQUEST.getCode(), "The request has no path");
+        }
+
+        String httpMethod = request.method == null ? "GET" : request.method.toUpperCase(Locale.ROOT);
+
+        String path = request.path;
+        Map<String, String> queryParams = new HashMap<>();
+        int queryStart = path.indexOf('?');
+        if (queryStart >= 0) {
+            parseQueryString(path.substring(queryStart + 1), queryParams);
+            path = path.substring(0, queryStart);
+        }
+        if (request.query != null) {
+            queryParams.putAll(request.query);
+        }
+
+        RouteMatcher routeMatcher = null;
+        for (RouteMatcher candidate : routeMatchers) {
+            if (candidate.matches(httpMethod, path)) {
+                routeMatcher = candidate;
+                break;
+            }
+        }
+        if (routeMatcher == null) {
+            return errorResult(
+                    id,
+                    HttpStatus.NOT_FOUND.getCode(),
+                    String.format("No endpoint matches %s %s", httpMethod, path)
+            );
+        }
+
+        Route route = routeMatcher.route();
+        if (route.getBinding().requiresContext()) {
+            return errorResult(
+                    id,
+                    HttpStatus.BAD_REQUEST.getCode(),
+                    String.format("%s can't be called in a batch", route)
+            );
+        }
+        if (principal != null) {
+            if (principal.hasAllRoles() && route.getRoleMask() != 0) {
+                return errorResult(
+                        id,
+                        HttpStatus.FORBIDDEN.getCode(),
+                        String.format("%s has roles, which the authentication plugin can't check in a batch", route)
+                );
+            }
+            if (!principal.hasAnyRole(route.getRoleMask())) {
+                return errorResult(id, HttpStatus.FORBIDDEN.getCode(), FORBIDDEN_MESSAGE);
+            }
+        }
+
+        // Sub-requests count against the rate limits of their client, the same as separate requests
+        RateLimiter rateLimiter = route.getRateLimiter();
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(rateLimiter.clientKey(context, principal));
+            if (waitNanos > 0) {
+                return new BatchResult(
+                        id,
+                        HttpStatus.TOO_MANY_REQUESTS.getCode(),
+                        Map.of(Header.RETRY_AFTER, RateLimiter.retryAfterSeconds(waitNanos)),
+                        new JsonPrimitive(RestApiConfig.TOO_MANY_REQUESTS_MESSAGE)
+                );
+            }
+        }
+
+        AdaptiveConcurrencyLimiter concurrencyLimiter = route.getConcurrencyLimiter();
+        if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+            return errorResult(
+                    id,
+                    HttpStatus.SERVICE_UNAVAILABLE.getCode(),
+                    "Service Unavailable: Too many concurrent requests, try again later."
+            );
+        }
+
+        RouteMetrics metrics = route.getMetrics();
+        long startedAt = metrics.requestStarted();
+        boolean invoked = false;
+        try {
+            Object[] arguments = route.getBinding().bind(new BatchRouteRequest(
+                    routeMatcher.pathParser().extractPathParams(path),
+                    queryParams,
+                    request.body
+            ));
+
+            invoked = true;
+            Object returnValue = route.getInvoker().invoke(arguments);
+            if (returnValue instanceof CompletionStage<?> completionStage) {
+                returnValue = completionStage.toCompletableFuture().join();
+            }
+
+            return result(id, returnValue);
+        } catch (Exception | Error e) {
+            metrics.recordError();
+
+            Throwable failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (failure instanceof HttpResponseException httpResponseException) {
+                return errorResult(id, httpResponseException.getStatus(), httpResponseException.getMessage());
+            }
+
+            logger.error(String.format("Batch request %s to %s failed", id, route), failure);
+            return errorResult(id, HttpStatus.INTERNAL_SERVER_ERROR.getCode(), "Server Error");
+        } finally {
+            RestApiConfig.finishRequest(route, startedAt, invoked);
+        }
+    }
+
+    private static void parseQueryString(String queryString, Map<String, String> queryParams) {
+        for (String parameter : queryString.split("&")) {
+            if (parameter.isEmpty()) {
+                continue;
+            }
+
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+
+            // The first value of a parameter wins, the same as for Context.queryParam
+            queryParams.putIfAbsent(
+                    URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8)
+            );
+        }
+    }
+
+    /**
+     * Serializes a return value into a tree on the thread that produced it, so that lazily computed results, such as
+     * streams, are consumed there.
+     */
+    private static BatchResult result(String id, Object returnValue) {
+        int status = HttpStatus.OK.getCode();
+        Map<String, String> headers = Map.of();
+        Object value = returnValue;
+
+        if (returnValue instanceof ResponseEntity<?> responseEntity) {
+            status = responseEntity.statusCode.getCode();
+            headers = Map.copyOf(responseEntity.headers);
+            value = responseEntity.entity;
+        }
+
+        return new BatchResult(id, status, headers, RestApiConfig.toJsonTree(value));
+    }
+
+    private static BatchResult errorResult(String id, int status, String message) {
+        return new BatchResult(id, status, Map.of(), message == null ? JsonNull.INSTANCE : new JsonPrimitive(message));
+    }
+
+    private static void writeResult(JsonWriter writer, BatchResult result) throws IOException {
+        writer.beginObject();
+        writer.name("id").value(result.id());
+        writer.name("status").value(result.status());
+
+        if (!result.headers().isEmpty()) {
+            writer.name("headers").beginObject();
+            for (Map.Entry<String, String> header : result.headers().entrySet()) {
+                writer.name(header.getKey()).value(header.getValue());
+            }
+            writer.endObject();
+        }
+
+        writer.name("body");
+        GsonUtils.getDefaultGson().toJson(result.body(), writer);
+        writer.endObject();
+    }
+}
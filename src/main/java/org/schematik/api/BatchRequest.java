@@ -0,0 +1,44 @@
+package org.schematik.api;
+
+import com.google.gson.JsonElement;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One sub-request of a batch sent to the {@link BatchEndpoint}. The path can contain a query string; its parameters are
+ * added to the ones in {@code query}. A sub-request that names other sub-requests in {@code dependsOn} is executed after
+ * they complete, and only if all of them succeed.
+ */
+public class BatchRequest {
+    String id;
+    String method;
+    String path;
+    Map<String, String> query;
+    JsonElement body;
+    List<String> dependsOn;
+
+    public String getId() {
+        return id;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Map<String, String> getQuery() {
+        return query;
+    }
+
+    public JsonElement getBody() {
+        return body;
+    }
+
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+}
@@ -0,0 +1,55 @@
+package org.schematik.api;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A {@link RouteRequest} for a sub-request of a batch. Its body has already been parsed together with the batch.
+ */
+public class BatchRouteRequest implements RouteRequest {
+    private final Map<String, String> pathParams;
+    private final Map<String, String> queryParams;
+    private final JsonElement body;
+
+    public BatchRouteRequest(Map<String, String> pathParams, Map<String, String> queryParams, JsonElement body) {
+        this.pathParams = pathParams;
+        this.queryParams = queryParams;
+        this.body = body == null ? JsonNull.INSTANCE : body;
+    }
+
+    @Override
+    public String pathParam(String name) {
+        return pathParams.get(name);
+    }
+
+    @Override
+    public String queryParam(String name) {
+        return queryParams.get(name);
+    }
+
+    @Override
+    public String contentType() {
+        return ContentType.JSON;
+    }
+
+    @Override
+    public Object readBody(Type type) {
+        return RouteBinding.readBody(body, type);
+    }
+
+    @Override
+    public <T> Iterator<T> openBodyIterator(Type elementType) {
+        return RouteBinding.openBodyIterator(body, elementType);
+    }
+
+    @Override
+    public Context context() {
+        return null;
+    }
+}
@@ -0,0 +1,188 @@
+package org.schematik.api;
+
+import io.javalin.http.Context;
+import io.javalin.security.RouteRole;
+import org.schematik.api.security.AuthenticatedPrincipal;
+import org.schematik.api.security.RouteRoleMask;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wraps the registered {@code WebserviceAuthentication} plugin and remembers successful authentications for a limited
+ * time, so repeat callers pay for credential verification once per TTL instead of once per request.
+ * <p>
+ * Entries are keyed by a fingerprint of the request credentials: an HMAC with a key that is generated at startup and
+ * never leaves the process, so the cache never holds the credentials themselves. The key also holds the roles of the
+ * route, because plugins that only implement {@code authenticate(Context)} may accept credentials on one route and
+ * reject them on another, and their principals pass the role check of every route. Lookups are lock-free. Failed
+ * authentications are not cached. When the cache is full, expired and then arbitrary entries are evicted until it is a
+ * tenth below its limit, so eviction runs once per many new entries rather than on every one.
+ * <p>
+ * The context attributes that the wrapped plugin sets while authenticating a request are cached with the principal and
+ * set again on every request it authenticates from the cache. The values are shared between these requests, so they
+ * should not be modified.
+ */
+public class CachingRestApiAuthenticationPlugin implements IRestApiAuthenticationPlugin {
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+
+    private final IRestApiAuthenticationPlugin delegate;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    private record CacheKey(String fingerprint, long routeRoleMask) {
+    }
+
+    private final Map<CacheKey, CachedPrincipal> entries = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> fingerprintMac;
+
+    public CachingRestApiAuthenticationPlugin(IRestApiAuthenticationPlugin delegate, long ttlMillis, int maxEntries) {
+        this.delegate = delegate;
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+
+        byte[] fingerprintKey = new byte[32];
+        new SecureRandom().nextBytes(fingerprintKey);
+        SecretKeySpec keySpec = new SecretKeySpec(fingerprintKey, FINGERPRINT_ALGORITHM);
+        this.fingerprintMac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    @Override
+    public void register() {
+        // The wrapped plugin has already been registered by PluginConfig
+    }
+
+    @Override
+    public boolean authenticate(Context context) {
+        return authenticatePrincipal(context) != null;
+    }
+
+    @Override
+    public AuthenticatedPrincipal authenticatePrincipal(Context context) {
+        String credentials = delegate.credentials(context);
+        if (credentials == null) {
+            return delegate.authenticatePrincipal(context);
+        }
+
+        CacheKey key = new CacheKey(fingerprint(credentials), RouteRoleMask.of(context.routeRoles()));
+        long now = System.currentTimeMillis();
+
+        CachedPrincipal cachedPrincipal = entries.get(key);
+        if (cachedPrincipal != null) {
+            if (now < cachedPrincipal.expiresAt) {
+                cachedPrincipal.attributes.forEach(context::attribute);
+                return cachedPrincipal.principal;
+            }
+
+            entries.remove(key, cachedPrincipal);
+        }
+
+        Map<String, Object> attributesBefore = context.attributeMap();
+        AuthenticatedPrincipal principal = delegate.authenticatePrincipal(context);
+        if (principal != null) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+
+            Map<String, Object> attributes = changedAttributes(attributesBefore, context.attributeMap());
+            entries.put(key, new CachedPrincipal(principal, now + ttlMillis, attributes));
+        }
+
+        return principal;
+    }
+
+    @Override
+    public RouteRole roleFromString(String roleString) {
+        return delegate.roleFromString(roleString);
+    }
+
+    @Override
+    public String credentials(Context context) {
+        return delegate.credentials(context);
+    }
+
+    /**
+     * Forgets the authentication of the given credentials, e.g. after a password change or a revoked token.
+     */
+    public void invalidateCredentials(String credentials) {
+        String fingerprint = fingerprint(credentials);
+        entries.keySet().removeIf(key -> key.fingerprint().equals(fingerprint));
+    }
+
+    /**
+     * Forgets every cached authentication of the principal with the given name.
+     */
+    public void invalidatePrincipal(String principalName) {
+        entries.values().removeIf(cachedPrincipal -> principalName.equals(cachedPrincipal.principal.getName()));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public IRestApiAuthenticationPlugin getDelegate() {
+        return delegate;
+    }
+
+    private String fingerprint(String credentials) {
+        byte[] digest = fingerprintMac.get().doFinal(credentials.getBytes(StandardCharsets.UTF_8));
+
+        return Base64.getEncoder().encodeToString(digest);
+    }
+
+    private static Map<String, Object> changedAttributes(Map<String, Object> before, Map<String, Object> after) {
+        Map<String, Object> changed = new HashMap<>();
+        after.forEach((name, value) -> {
+            if (before.get(name) != value) {
+                changed.put(name, value);
+            }
+        });
+
+        return changed.isEmpty() ? Map.of() : changed;
+    }
+
+    private synchronized void evict(long now) {
+        // Another thread may have evicted while this one waited for the lock
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        int targetEntries = maxEntries - Math.max(1, maxEntries / 10);
+        entries.values().removeIf(cachedPrincipal -> now >= cachedPrincipal.expiresAt);
+
+        // Still full of live entries, make room by dropping arbitrary ones
+        Iterator<CachedPrincipal> iterator = entries.values().iterator();
+        while (entries.size() > targetEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static class CachedPrincipal {
+        final AuthenticatedPrincipal principal;
+        final long expiresAt;
+        final Map<String, Object> attributes;
+
+        CachedPrincipal(AuthenticatedPrincipal principal, long expiresAt, Map<String, Object> attributes) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+            this.attributes = attributes;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.schematik.api;
+
+import io.javalin.http.Context;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+/**
+ * A {@link RouteRequest} received by the server.
+ */
+public class ContextRouteRequest implements RouteRequest {
+    private final Context context;
+
+    public ContextRouteRequest(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public String pathParam(String name) {
+        return context.pathParam(name);
+    }
+
+    @Override
+    public String queryParam(String name) {
+        return context.queryParam(name);
+    }
+
+    @Override
+    public String contentType() {
+        return context.contentType();
+    }
+
+    @Override
+    public Object readBody(Type type) {
+        return RouteBinding.readBody(context, type);
+    }
+
+    @Override
+    public <T> Iterator<T> openBodyIterator(Type elementType) {
+        return RouteBinding.openBodyIterator(context, elementType);
+    }
+
+    @Override
+    public Context context() {
+        return context;
+    }
+}
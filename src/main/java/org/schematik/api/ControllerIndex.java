@@ -0,0 +1,147 @@
+package org.schematik.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller classes and their request methods, read from the index files written at compile time by
+ * {@link org.schematik.api.processor.ControllerIndexProcessor}.
+ * <p>
+ * Each line of an index file is either the binary name of a controller class, or a request method of the controller
+ * above it: a tab, the method name and its parameter type names, e.g. {@code \tgetUser(int,java.lang.String)}.
+ */
+public class ControllerIndex {
+    static Logger logger = LoggerFactory.getLogger(ControllerIndex.class);
+
+    public static final String INDEX_LOCATION = "META-INF/schematik/controllers.idx";
+
+    private final Map<String, Set<String>> controllers;
+
+    ControllerIndex(Map<String, Set<String>> controllers) {
+        this.controllers = controllers;
+    }
+
+    /**
+     * Reads every index file visible to the class loader of the main class. Returns {@code null} if the classpath entry
+     * of the main class itself has no index file, in which case controllers have to be found by scanning the classpath:
+     * an index that comes only from dependencies doesn't list the application's controllers.
+     */
+    public static ControllerIndex load(Class<?> mainClass) throws IOException {
+        if (!hasOwnIndex(mainClass)) {
+            return null;
+        }
+
+        Enumeration<URL> indexFiles = mainClass.getClassLoader().getResources(INDEX_LOCATION);
+
+        Map<String, Set<String>> controllers = new LinkedHashMap<>();
+        while (indexFiles.hasMoreElements()) {
+            URL indexFile = indexFiles.nextElement();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(indexFile.openStream(), StandardCharsets.UTF_8)
+            )) {
+                read(reader, controllers);
+            }
+
+            logger.debug("Read controller index " + indexFile);
+        }
+
+        return new ControllerIndex(controllers);
+    }
+
+    private static boolean hasOwnIndex(Class<?> mainClass) throws IOException {
+        CodeSource codeSource = mainClass.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            return false;
+        }
+
+        URL location = codeSource.getLocation();
+        // The main class is either in a directory or in a jar
+        URI indexFile = location.getPath().endsWith("/")
+                ? URI.create(location + INDEX_LOCATION)
+                : URI.create("jar:" + location + "!/" + INDEX_LOCATION);
+        try (InputStream ignored = indexFile.toURL().openStream()) {
+            return true;
+        } catch (FileNotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads an index file into a map from controller class names to the signatures of their request methods. Also used
+     * by the annotation processor, to keep the controllers that an incremental compilation didn't recompile.
+     */
+    public static void read(BufferedReader reader, Map<String, Set<String>> controllers) throws IOException {
+        Set<String> methods = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+
+            if (line.charAt(0) == '\t') {
+                if (methods == null) {
+                    throw new IOException("Request method without a controller in controller index: " + line.trim());
+                }
+                methods.add(line.substring(1));
+            } else {
+                methods = controllers.computeIfAbsent(line.trim(), key -> new LinkedHashSet<>());
+            }
+        }
+    }
+
+    /**
+     * Returns the binary names of the indexed controllers.
+     */
+    public Set<String> getControllerClassNames() {
+        return Collections.unmodifiableSet(controllers.keySet());
+    }
+
+    /**
+     * Returns the indexed request methods of the controller, in declaration order. Methods that are in the index but no
+     * longer declared by the class are ignored.
+     */
+    public List<Method> getRequestMethods(Class<?> controllerClass) {
+        Set<String> signatures = controllers.getOrDefault(controllerClass.getName(), Set.of());
+
+        List<Method> methods = new ArrayList<>(signatures.size());
+        for (Method method : controllerClass.getDeclaredMethods()) {
+            if (signatures.contains(signatureOf(method))) {
+                methods.add(method);
+            }
+        }
+
+        return methods;
+    }
+
+    static String signatureOf(Method method) {
+        StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(parameterTypes[i].getTypeName());
+        }
+
+        return signature.append(')').toString();
+    }
+}
@@ -1,11 +1,32 @@
 package org.schematik.api;
 
 import io.javalin.http.Context;
+import io.javalin.http.Header;
 import io.javalin.security.RouteRole;
+import org.schematik.api.security.AuthenticatedPrincipal;
 import org.schematik.plugin.ISchematikPlugin;
 
 public interface IRestApiAuthenticationPlugin extends ISchematikPlugin {
     boolean authenticate(Context context);
 
     RouteRole roleFromString(String roleString);
+
+    /**
+     * Identifies the caller of a request, or returns {@code null} if the request is not authenticated. The roles of
+     * the returned principal are checked against the roles of the route. Override this method to provide them; the
+     * default implementation delegates to {@link #authenticate(Context)} and, as before roles were checked, lets every
+     * authenticated caller access every route.
+     */
+    default AuthenticatedPrincipal authenticatePrincipal(Context context) {
+        return authenticate(context) ? AuthenticatedPrincipal.withAllRoles(null) : null;
+    }
+
+    /**
+     * Returns the part of the request that identifies the caller, or {@code null} if it has none. Requests with equal
+     * credentials are expected to authenticate as the same principal, which lets the authentication cache reuse the
+     * result. The default implementation returns the {@code Authorization} header.
+     */
+    default String credentials(Context context) {
+        return context.header(Header.AUTHORIZATION);
+    }
 }
@@ -0,0 +1,116 @@
+package org.schematik.api;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import io.javalin.http.BadRequestResponse;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the elements of a request body one at a time, either from a JSON array or from newline delimited JSON
+ * (NDJSON). An element is only read from the request input stream when the controller asks for it, so the body is
+ * never held in memory as a whole and a slow consumer holds back the client through TCP flow control.
+ */
+public class JsonBodyIterator<T> implements Iterator<T>, Closeable {
+    private final Gson gson;
+    private final JsonReader reader;
+    private final Type elementType;
+    private final boolean delimited;
+
+    private boolean started;
+    private boolean finished;
+
+    public JsonBodyIterator(Gson gson, JsonReader reader, Type elementType, boolean delimited) {
+        this.gson = gson;
+        this.reader = reader;
+        this.elementType = elementType;
+        this.delimited = delimited;
+
+        // Lenient parsing accepts several top-level values, one per NDJSON line
+        this.reader.setLenient(delimited);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (finished) {
+            return false;
+        }
+
+        try {
+            if (!started) {
+                started = true;
+                if (!delimited) {
+                    reader.beginArray();
+                }
+            }
+
+            boolean hasNext = delimited
+                    ? reader.peek() != JsonToken.END_DOCUMENT
+                    : reader.hasNext();
+
+            if (!hasNext) {
+                finished = true;
+                if (!delimited) {
+                    reader.endArray();
+                }
+            }
+
+            return hasNext;
+        } catch (EOFException e) {
+            // An empty NDJSON body has no elements, an empty array body is truncated
+            if (delimited) {
+                finished = true;
+                return false;
+            }
+
+            throw new BadRequestResponse("Malformed request body");
+        } catch (MalformedJsonException | IllegalStateException e) {
+            throw new BadRequestResponse("Malformed request body");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        try {
+            return gson.fromJson(reader, elementType);
+        } catch (JsonParseException e) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        reader.close();
+    }
+}
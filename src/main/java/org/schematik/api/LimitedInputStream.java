@@ -0,0 +1,60 @@
+package org.schematik.api;
+
+import io.javalin.http.ContentTooLargeResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A request body that answers the request with {@code 413 Content Too Large} as soon as more than a given number of
+ * bytes have been read from it, the same as Javalin does for bodies read with {@code Context.body()}.
+ */
+class LimitedInputStream extends FilterInputStream {
+    private long remainingBytes;
+
+    LimitedInputStream(InputStream inputStream, long maxBytes) {
+        super(inputStream);
+        this.remainingBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int bytesRead = super.read(buffer, offset, length);
+        if (bytesRead > 0) {
+            count(bytesRead);
+        }
+
+        return bytesRead;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) {
+        remainingBytes -= bytes;
+        if (remainingBytes < 0) {
+            throw new ContentTooLargeResponse();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.schematik.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * {@link RouteInvoker} backed by a {@link MethodHandle}. The handle is resolved, bound to the controller instance and
+ * adapted to an {@code (Object[]) -> Object} shape when the route is registered, so access checks and argument
+ * adaptation are paid once instead of on every request. Parameter converters of the route's {@link RouteBinding} are
+ * folded into the handle, so converted arguments reach the controller method without an intermediate boxed value.
+ */
+public class MethodHandleRouteInvoker implements RouteInvoker {
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final MethodHandle handle;
+
+    public MethodHandleRouteInvoker(
+            Method method,
+            Object controllerInstance,
+            MethodHandle[] argumentConverters
+    ) throws IllegalAccessException {
+        // Allows package-private controllers, which Method.invoke() used to reject at request time
+        method.trySetAccessible();
+
+        MethodHandle methodHandle = MethodHandles.lookup().unreflect(method);
+        if (!Modifier.isStatic(method.getModifiers())) {
+            methodHandle = methodHandle.bindTo(controllerInstance);
+        }
+
+        // Null converters leave their argument untouched
+        methodHandle = MethodHandles.filterArguments(methodHandle, 0, argumentConverters);
+
+        this.handle = methodHandle
+                .asSpreader(Object[].class, method.getParameterCount())
+                .asType(INVOKER_TYPE);
+    }
+
+    @Override
+    public Object invoke(Object[] arguments) throws Exception {
+        try {
+            return (Object) handle.invokeExact(arguments);
+        } catch (Exception | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new UndeclaredThrowableException(t);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.schematik.api;
+
+/**
+ * Extracts the raw value of a single controller method parameter from the request. Binders are resolved once per
+ * route by {@link RouteBinding}; any conversion of the raw value is done by the converters of the binding plan.
+ */
+@FunctionalInterface
+public interface ParameterBinder {
+    Object bind(RouteRequest request);
+}
@@ -0,0 +1,132 @@
+package org.schematik.api;
+
+import io.javalin.http.BadRequestResponse;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Converters from the string value of a path or query parameter to the declared parameter type. Every converter is a
+ * {@code (String) -> T} method handle, so primitive parameters are parsed straight into the primitive value that is
+ * passed to the controller method, without boxing. Values that cannot be converted are rejected with a
+ * {@link BadRequestResponse}.
+ */
+public class ParameterConverters {
+    private static final Map<Class<?>, MethodHandle> parsers = new HashMap<>();
+
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle REJECT_MISSING;
+    private static final MethodHandle REJECT_INVALID;
+
+    static {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        try {
+            parsers.put(int.class, findParser(lookup, Integer.class, "parseInt", int.class));
+            parsers.put(Integer.class, findParser(lookup, Integer.class, "valueOf", Integer.class));
+            parsers.put(long.class, findParser(lookup, Long.class, "parseLong", long.class));
+            parsers.put(Long.class, findParser(lookup, Long.class, "valueOf", Long.class));
+            parsers.put(double.class, findParser(lookup, Double.class, "parseDouble", double.class));
+            parsers.put(Double.class, findParser(lookup, Double.class, "valueOf", Double.class));
+            parsers.put(float.class, findParser(lookup, Float.class, "parseFloat", float.class));
+            parsers.put(Float.class, findParser(lookup, Float.class, "valueOf", Float.class));
+            parsers.put(boolean.class, findParser(lookup, Boolean.class, "parseBoolean", boolean.class));
+            parsers.put(Boolean.class, findParser(lookup, Boolean.class, "valueOf", Boolean.class));
+            parsers.put(char.class, findParser(lookup, ParameterConverters.class, "parseChar", char.class));
+            parsers.put(Character.class, parsers.get(char.class).asType(MethodType.methodType(Character.class, String.class)));
+            parsers.put(BigDecimal.class, lookup.findConstructor(BigDecimal.class, MethodType.methodType(void.class, String.class)));
+            parsers.put(BigInteger.class, lookup.findConstructor(BigInteger.class, MethodType.methodType(void.class, String.class)));
+            parsers.put(LocalDate.class, findTemporalParser(lookup, LocalDate.class));
+            parsers.put(LocalTime.class, findTemporalParser(lookup, LocalTime.class));
+            parsers.put(LocalDateTime.class, findTemporalParser(lookup, LocalDateTime.class));
+
+            IS_NULL = lookup.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class))
+                    .asType(MethodType.methodType(boolean.class, String.class));
+            REJECT_MISSING = lookup.findStatic(
+                    ParameterConverters.class,
+                    "rejectMissingValue",
+                    MethodType.methodType(Object.class, String.class, String.class)
+            );
+            REJECT_INVALID = lookup.findStatic(
+                    ParameterConverters.class,
+                    "rejectInvalidValue",
+                    MethodType.methodType(Object.class, String.class, Class.class, RuntimeException.class, String.class)
+            );
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Returns a {@code (String) -> type} converter for the parameter, or {@code null} for {@link String} parameters,
+     * which need no conversion.
+     */
+    public static MethodHandle forType(Class<?> type, String parameterName) {
+        if (type == String.class) {
+            return null;
+        }
+
+        MethodHandle parser = parsers.get(type);
+        if (parser == null) {
+            throw new IllegalArgumentException("Unsupported type: " + type.getTypeName());
+        }
+
+        MethodType converterType = MethodType.methodType(type, String.class);
+
+        MethodHandle invalidValueHandler = MethodHandles.insertArguments(REJECT_INVALID, 0, parameterName, type)
+                .asType(MethodType.methodType(type, RuntimeException.class, String.class));
+        MethodHandle safeParser = MethodHandles.catchException(parser, RuntimeException.class, invalidValueHandler);
+
+        MethodHandle nullValueHandler = type.isPrimitive()
+                ? MethodHandles.insertArguments(REJECT_MISSING, 0, parameterName).asType(converterType)
+                : MethodHandles.dropArguments(MethodHandles.constant(type, null), 0, String.class);
+
+        return MethodHandles.guardWithTest(IS_NULL, nullValueHandler, safeParser);
+    }
+
+    private static MethodHandle findParser(
+            MethodHandles.Lookup lookup,
+            Class<?> owner,
+            String name,
+            Class<?> type
+    ) throws NoSuchMethodException, IllegalAccessException {
+        return lookup.findStatic(owner, name, MethodType.methodType(type, String.class));
+    }
+
+    private static MethodHandle findTemporalParser(
+            MethodHandles.Lookup lookup,
+            Class<?> type
+    ) throws NoSuchMethodException, IllegalAccessException {
+        return lookup.findStatic(type, "parse", MethodType.methodType(type, CharSequence.class))
+                .asType(MethodType.methodType(type, String.class));
+    }
+
+    private static char parseChar(String value) {
+        if (value.length() != 1) {
+            throw new IllegalArgumentException("Expected a single character: " + value);
+        }
+
+        return value.charAt(0);
+    }
+
+    private static Object rejectMissingValue(String parameterName, String value) {
+        throw new BadRequestResponse(String.format("Missing value for parameter %s", parameterName));
+    }
+
+    private static Object rejectInvalidValue(String parameterName, Class<?> type, RuntimeException cause, String value) {
+        throw new BadRequestResponse(String.format(
+                "Invalid value for parameter %s: expected %s",
+                parameterName,
+                type.getSimpleName()
+        ));
+    }
+}
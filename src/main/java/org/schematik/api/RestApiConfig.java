@@ -1,35 +1,80 @@
 package org.schematik.api;
 
-import com.google.gson.FieldNamingPolicy;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
+import io.javalin.http.Header;
 import io.javalin.http.HttpStatus;
 import io.javalin.security.RouteRole;
+import org.schematik.Application;
+import org.schematik.api.annotation.Cached;
 import org.schematik.api.annotation.Controller;
-import org.schematik.api.annotation.parameter.*;
+import org.schematik.api.annotation.RateLimited;
 import org.schematik.api.annotation.request.*;
+import org.schematik.api.cache.CachedResponse;
+import org.schematik.api.cache.ResponseCache;
+import org.schematik.api.codec.IMediaCodec;
+import org.schematik.api.codec.JsonMediaCodec;
+import org.schematik.api.codec.MediaCodecs;
+import org.schematik.api.limit.AdaptiveConcurrencyLimiter;
+import org.schematik.api.limit.ConcurrencyLimitMetrics;
+import org.schematik.api.limit.RateLimitConfig;
+import org.schematik.api.limit.RateLimitMetrics;
+import org.schematik.api.limit.RateLimiter;
+import org.schematik.api.metrics.RequestPhase;
+import org.schematik.api.metrics.RestApiMetrics;
+import org.schematik.api.metrics.RouteMetrics;
+import org.schematik.api.security.AuthenticatedPrincipal;
 import org.schematik.api.security.RouteRoleUtils;
-import org.schematik.gson.LocalDateAdapter;
+import org.schematik.gson.GsonUtils;
+import org.schematik.jetty.ConnectorConfig;
 import org.schematik.jetty.JettyServer;
+import org.schematik.metrics.MetricsEndpoint;
+import org.schematik.metrics.MetricsRegistry;
 import org.schematik.plugin.PluginConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 public class RestApiConfig {
     static Logger logger = LoggerFactory.getLogger(RestApiConfig.class);
 
-    static Gson gson;
+
+    static List<Route> routes = new ArrayList<>();
+
+    static IRestApiAuthenticationPlugin authenticationPlugin;
+
+    static RestApiMetrics restApiMetrics = new RestApiMetrics();
+
+    static ConcurrencyLimitMetrics concurrencyLimitMetrics = new ConcurrencyLimitMetrics();
+
+    static String retryAfterSeconds = "1";
+
+    static RateLimitMetrics rateLimitMetrics = new RateLimitMetrics();
+
+    static final String TOO_MANY_REQUESTS_MESSAGE = "Too Many Requests: Slow down and try again later.";
+
+    // Set on requests that reached the invoker of their route, whose latency adjusts the concurrency limit
+    private static final String INVOKED_ATTRIBUTE = "schematik.invoked";
 
     static Set<Class<? extends Annotation>> requestTypeAnnotations = Set.of(
             Get.class,
@@ -41,33 +86,45 @@ public class RestApiConfig {
             Options.class
     );
 
-    static Set<Class<? extends Annotation>> parameterTypeAnnotations = Set.of(
-            PathParam.class,
-            QueryParam.class,
-            RequestBody.class
-    );
-
     public static synchronized void initialize() {
-        GsonBuilder builder = (new GsonBuilder())
-                .setFieldNamingPolicy(FieldNamingPolicy.IDENTITY)
-                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter());
-        gson = builder.create();
+        initialize(RestApiUtils.discoverControllerClasses());
+    }
 
+    /**
+     * Registers the endpoints of the given controllers, waiting for their discovery to finish if it's still running.
+     */
+    public static synchronized void initialize(Future<Set<Class<?>>> discoveredControllerClasses) {
         try {
             logger.info("Initializing REST apis...");
 
             // Get the registered authentication plugin
-            IRestApiAuthenticationPlugin authenticationPlugin =
+            IRestApiAuthenticationPlugin registeredAuthenticationPlugin =
                     (IRestApiAuthenticationPlugin) PluginConfig.getPluginImplementation("WebserviceAuthentication");
 
             // If no plugin is registered, log a warning
-            if (authenticationPlugin == null) {
+            if (registeredAuthenticationPlugin == null) {
                 logger.warn(
                         "No WebserviceAuthentication plugin has been registered. Webservice security will be disabled."
                 );
             }
 
-            Set<Class<?>> controllerClasses = RestApiUtils.getControllerClasses();
+            IRestApiAuthenticationPlugin authenticationPlugin = withAuthenticationCache(registeredAuthenticationPlugin);
+            RestApiConfig.authenticationPlugin = authenticationPlugin;
+
+            // Request bodies are read as streams, which Javalin doesn't limit
+            RouteBinding.configureBodyLimits(
+                    JettyServer.instance.app.unsafeConfig().http.maxRequestSize,
+                    Long.parseLong(Application.getPropertyOrDefault("api.streamedBody.maxBytes", "0"))
+            );
+
+            boolean concurrencyLimitByDefault = Boolean.parseBoolean(
+                    Application.getPropertyOrDefault("api.concurrencyLimit.enabled", "false")
+            );
+            retryAfterSeconds = Application.getPropertyOrDefault("api.concurrencyLimit.retryAfterSeconds", "1");
+
+            RateLimitConfig rateLimitConfig = RateLimitConfig.load();
+
+            Set<Class<?>> controllerClasses = discoveredControllerClasses.get();
             controllerClasses.forEach(controllerClass -> {
                 try {
                     Object controllerInstance = controllerClass.getConstructor().newInstance();
@@ -77,8 +134,7 @@ public class RestApiConfig {
                     );
 
 
-                    Method[] methods = controllerClass.getDeclaredMethods();
-                    Arrays.stream(methods).forEach(method -> {
+                    RestApiUtils.getControllerMethods(controllerClass).forEach(method -> {
                         int numberOfRequestAnnotations = 0;
                         Annotation requestAnnotation = null;
                         for (Annotation annotation : method.getDeclaredAnnotations()) {
@@ -103,6 +159,7 @@ public class RestApiConfig {
 
                         String endpoint;
                         List<RouteRole> roles = new ArrayList<>();
+                        ConcurrencyLimit concurrencyLimit;
                         try {
                             endpoint = processEndpointString(requestAnnotation.annotationType()
                                     .getDeclaredMethod("endpoint")
@@ -121,17 +178,82 @@ public class RestApiConfig {
                             Arrays.stream(roleNames).forEach(roleName ->
                                     roles.add(RouteRoleUtils.routeRoleFromString(roleClass, roleName))
                             );
+
+                            concurrencyLimit = (ConcurrencyLimit) requestAnnotation.annotationType()
+                                    .getDeclaredMethod("concurrencyLimit")
+                                    .invoke(requestAnnotation);
                         } catch (Exception e) {
                             throw new RuntimeException(e);
                         }
 
+                        RouteBinding binding;
+                        try {
+                            binding = RouteBinding.forMethod(method, endpoint);
+                        } catch (IllegalArgumentException e) {
+                            logger.error(String.format(
+                                    "%s::%s has invalid parameters: %s Skipping...",
+                                    controllerClass.getName(),
+                                    method.getName(),
+                                    e.getMessage()
+                            ));
+                            return;
+                        }
+
+                        RouteInvoker invoker;
+                        try {
+                            invoker = new MethodHandleRouteInvoker(
+                                    method,
+                                    controllerInstance,
+                                    binding.getConverters()
+                            );
+                        } catch (IllegalAccessException e) {
+                            logger.error(String.format(
+                                    "%s::%s is not accessible. Skipping...",
+                                    controllerClass.getName(),
+                                    method.getName()
+                            ), e);
+                            return;
+                        }
+
+                        ResponseCache responseCache = null;
+                        Cached cached = method.getAnnotation(Cached.class);
+                        if (cached != null) {
+                            if (requestAnnotation instanceof Get) {
+                                responseCache = new ResponseCache(cached);
+                            } else {
+                                logger.warn(String.format(
+                                        "%s::%s is annotated with @Cached, but only @Get endpoints are cached. Ignoring...",
+                                        controllerClass.getName(),
+                                        method.getName()
+                                ));
+                            }
+                        }
+
+                        String httpMethod = httpRequestFromAnnotation(requestAnnotation);
+                        Route route = new Route(
+                                httpMethod,
+                                endpoint,
+                                binding,
+                                invoker,
+                                roles.toArray(new RouteRole[0]),
+                                responseCache,
+                                concurrencyLimit == ConcurrencyLimit.ADAPTIVE
+                                        || (concurrencyLimit == ConcurrencyLimit.DEFAULT && concurrencyLimitByDefault),
+                                rateLimitConfig.forRoute(httpMethod, endpoint, method.getAnnotation(RateLimited.class))
+                        );
+                        routes.add(route);
+                        restApiMetrics.add(route.getMetrics());
+                        if (route.getConcurrencyLimiter() != null) {
+                            concurrencyLimitMetrics.add(route.getConcurrencyLimiter());
+                        }
+                        if (route.getRateLimiter() != null) {
+                            rateLimitMetrics.add(route.getRateLimiter());
+                        }
+
                         handleRequestAnnotation(
                                 requestAnnotation,
-                                endpoint,
-                                method,
-                                controllerInstance,
-                                authenticationPlugin,
-                                roles.toArray(new RouteRole[0])
+                                route,
+                                authenticationPlugin
                         );
 
                         logEndpointInfo(requestAnnotation, endpoint);
@@ -141,12 +263,67 @@ public class RestApiConfig {
                 }
             });
 
+            rateLimitConfig.logUnmatchedLimits();
 
+            MetricsRegistry.register(restApiMetrics);
+            MetricsRegistry.register(concurrencyLimitMetrics);
+            MetricsRegistry.register(rateLimitMetrics);
+            if (Boolean.parseBoolean(Application.getPropertyOrDefault("metrics.enabled", "false"))) {
+                MetricsEndpoint.register(JettyServer.instance.app, authenticationPlugin);
+            }
+            if (Boolean.parseBoolean(Application.getPropertyOrDefault("api.batch.enabled", "false"))) {
+                // Admin routes are only served on the admin connector, which a batch on the main connector must not bypass
+                List<Route> batchRoutes = routes.stream()
+                        .filter(route -> !ConnectorConfig.isAdminPath(route.getEndpoint()))
+                        .toList();
+                BatchEndpoint.register(JettyServer.instance.app, batchRoutes, authenticationPlugin);
+            }
         } catch (Exception e) {
             logger.error("Error while initializing REST apis", e);
         }
     }
 
+    /**
+     * Returns the routes of the registered controller endpoints.
+     */
+    public static List<Route> getRoutes() {
+        return Collections.unmodifiableList(routes);
+    }
+
+    /**
+     * Returns the authentication plugin used by the endpoints, which is the registered {@code WebserviceAuthentication}
+     * plugin or, if authentication caching is enabled, the {@link CachingRestApiAuthenticationPlugin} that wraps it.
+     */
+    public static IRestApiAuthenticationPlugin getAuthenticationPlugin() {
+        return authenticationPlugin;
+    }
+
+    private static IRestApiAuthenticationPlugin withAuthenticationCache(
+            IRestApiAuthenticationPlugin authenticationPlugin
+    ) {
+        boolean cacheEnabled = Boolean.parseBoolean(
+                Application.getPropertyOrDefault("api.authentication.cache.enabled", "false")
+        );
+        if (authenticationPlugin == null || !cacheEnabled) {
+            return authenticationPlugin;
+        }
+
+        long ttlMillis = Long.parseLong(
+                Application.getPropertyOrDefault("api.authentication.cache.ttlMillis", "60000")
+        );
+        int maxEntries = Integer.parseInt(
+                Application.getPropertyOrDefault("api.authentication.cache.maxEntries", "10000")
+        );
+
+        logger.info(String.format(
+                "Caching authentications for %d ms (at most %d callers)",
+                ttlMillis,
+                maxEntries
+        ));
+
+        return new CachingRestApiAuthenticationPlugin(authenticationPlugin, ttlMillis, maxEntries);
+    }
+
     private static String processEndpointString(String endpoint) {
         if (!endpoint.startsWith("/")) {
             endpoint = "/" + endpoint;
@@ -158,120 +335,149 @@ public class RestApiConfig {
         return endpoint;
     }
 
-    private static Object stringToTypedObject(Type type, String value) {
-        if (type == Integer.class || type == int.class) {
-            return Integer.parseInt(value);
-        } else if (type == Long.class || type == long.class) {
-            return Long.parseLong(value);
-        } else if (type == Double.class || type == double.class) {
-            return Double.parseDouble(value);
-        } else if (type == Float.class || type == float.class) {
-            return Float.parseFloat(value);
-        } else if (type == Boolean.class || type == boolean.class) {
-            return Boolean.parseBoolean(value);
-        } else if (type == Character.class || type == char.class) {
-            return value;
-        } else if (type == String.class) {
-            return value;
-        } else if (type == BigDecimal.class) {
-            return new BigDecimal(value);
-        } else if (type == BigInteger.class) {
-            return new BigInteger(value);
-        } else if (type == LocalDate.class) {
-            return LocalDate.parse(value);
-        } else if (type == LocalTime.class) {
-            return LocalTime.parse(value);
-        } else if (type == LocalDateTime.class) {
-            return LocalDateTime.parse(value);
-        } else {
-            throw new IllegalArgumentException("Unsupported type: " + type.getTypeName());
+    private static void sendResponse(Context context, Object value) throws IOException {
+        if (value == null) {
+            context.result();
+            return;
         }
-    }
-
-    private static List<Object> buildParametersForMethod(Method method, Context context) {
-        List<Object> parameters = new ArrayList<>();
 
-        Parameter[] methodParameters = method.getParameters();
-        if (methodParameters.length == 1 && methodParameters[0].getType().equals(Context.class)) {
-            return Collections.singletonList(context);
+        IMediaCodec codec = MediaCodecs.forAccept(context.header(Header.ACCEPT));
+        if (codec != JsonMediaCodec.INSTANCE) {
+            sendEncodedResponse(context, codec, value);
+            return;
         }
 
-        for (Parameter parameter : methodParameters) {
-            int numberOfParameterAnnotations = 0;
-            Annotation parameterAnnotation = null;
-            for (Annotation annotation : parameter.getDeclaredAnnotations()) {
-                if (parameterTypeAnnotations.contains(annotation.annotationType())) {
-                    numberOfParameterAnnotations++;
-                    parameterAnnotation = annotation;
-                }
-            }
+        Class<?> valueClass = value.getClass();
 
-            if (numberOfParameterAnnotations == 0) {
-                break;
-            }
+        String typedObjectString = typedObjectToString(valueClass, value);
 
-            if (numberOfParameterAnnotations > 1) {
-                throw new RuntimeException(String.format(
-                        "Parameter %s in method %s has more than one parameter annotations. Only one parameter annotation is allowed per parameter.",
-                        parameter.getName(),
-                        method.getName()
-                ));
-            }
+        if (typedObjectString != null) {
+            context.result(typedObjectString);
+        } else if (isJsonArray(value)) {
+            streamArray(context, codec, value);
+        } else { // if (valueClass.isAnnotationPresent(Entity.class)) {
+            context.result(context.jsonMapper().toJsonString(value, valueClass));
+        }
+    }
 
-            Type parameterType = parameter.getType();
-            if (parameterAnnotation instanceof PathParam pathParamAnnotation) {
-                String parameterName = pathParamAnnotation.name().isEmpty()
-                        ? parameter.getName()
-                        : pathParamAnnotation.name();
+    /**
+     * Sends a value in a media type other than json. Unlike with json, scalar values are encoded as well, so that
+     * clients can decode every response the same way.
+     */
+    private static void sendEncodedResponse(Context context, IMediaCodec codec, Object value) throws IOException {
+        if (isJsonArray(value)) {
+            streamArray(context, codec, value);
+            return;
+        }
 
-                String parameterValue = context.pathParam(parameterName);
+        context.contentType(codec.getMediaType());
+        context.result(encode(codec, value));
+    }
 
-                parameters.add(stringToTypedObject(parameterType, parameterValue));
-            } else if (parameterAnnotation instanceof QueryParam queryParamAnnotation) {
-                String parameterName = queryParamAnnotation.name().isEmpty()
-                        ? parameter.getName()
-                        : queryParamAnnotation.name();
+    static byte[] encode(IMediaCodec codec, Object value) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        JsonWriter writer = codec.newWriter(outputStream);
+        writeValue(writer, value);
+        writer.flush();
 
-                String parameterValue = context.queryParam(parameterName);
+        return outputStream.toByteArray();
+    }
 
-                parameters.add(stringToTypedObject(parameterType, parameterValue));
-            } else if (parameterAnnotation instanceof RequestBody) {
-                parameters.add(context.jsonMapper().fromJsonString(context.body(), parameterType));
+    /**
+     * Writes a return value as a single value. Unlike in plain json responses, scalar values that are sent as text,
+     * such as strings and dates, are written as strings.
+     */
+    static void writeValue(JsonWriter writer, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (isJsonArray(value)) {
+            writeJsonArray(writer, value);
+        } else if (!(value instanceof Number) && !(value instanceof Boolean)
+                && typedObjectToString(value.getClass(), value) != null) {
+            writer.value(value.toString());
+        } else {
+            GsonUtils.getDefaultGson().toJson(value, value.getClass(), writer);
+        }
+    }
+
+    /**
+     * Converts a return value into a tree, the same way {@link #writeValue(JsonWriter, Object)} writes it. Iterators and
+     * streams are consumed, and streams are closed afterwards.
+     */
+    static JsonElement toJsonTree(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        } else if (value instanceof Stream<?> stream) {
+            try (stream) {
+                return toJsonArray(stream.iterator());
             }
+        } else if (value instanceof Iterable<?> iterable) {
+            return toJsonArray(iterable.iterator());
+        } else if (value instanceof Iterator<?> iterator) {
+            return toJsonArray(iterator);
+        } else if (!(value instanceof Number) && !(value instanceof Boolean)
+                && typedObjectToString(value.getClass(), value) != null) {
+            return new JsonPrimitive(value.toString());
         }
 
-        return parameters;
+        return GsonUtils.getDefaultGson().toJsonTree(value, value.getClass());
     }
 
-    private static void sendResponse(Context context, Object value) {
-        if (value == null) {
-            context.result();
-            return;
+    private static JsonArray toJsonArray(Iterator<?> items) {
+        JsonArray array = new JsonArray();
+        while (items.hasNext()) {
+            Object item = items.next();
+            array.add(item == null ? JsonNull.INSTANCE : GsonUtils.getDefaultGson().toJsonTree(item, item.getClass()));
         }
 
-        Class<?> valueClass = value.getClass();
+        return array;
+    }
 
-        String typedObjectString = typedObjectToString(valueClass, value);
+    /**
+     * Writes the items straight to the response output stream as an array. Nothing sets a content length, so the
+     * response goes out with chunked transfer encoding and only one item is held in memory at a time.
+     */
+    private static void streamArray(Context context, IMediaCodec codec, Object items) throws IOException {
+        context.contentType(codec.getMediaType());
 
-        if (typedObjectString != null) {
-            context.result(typedObjectString);
-        } else if (value instanceof Collection<?> collection) {
-            StringBuilder result = new StringBuilder("[");
-            result.append(collection.stream()
-                    .map(collectionItem -> {
-                        Class<?> collectionItemClass = collectionItem.getClass();
-                        return context.jsonMapper().toJsonString(collectionItem, collectionItemClass);
-                    })
-                    .collect(Collectors.joining(", "))
-            );
-            result.append("]");
-            context.result(result.toString());
-        } else { // if (valueClass.isAnnotationPresent(Entity.class)) {
-            context.result(context.jsonMapper().toJsonString(value, valueClass));
+        JsonWriter writer = codec.newWriter(context.outputStream());
+        writeJsonArray(writer, items);
+        writer.flush();
+    }
+
+    static boolean isJsonArray(Object value) {
+        return value instanceof Iterable<?> || value instanceof Iterator<?> || value instanceof Stream<?>;
+    }
+
+    /**
+     * Writes an {@link Iterable}, {@link Iterator} or {@link Stream} as a JSON array. Streams are closed afterwards.
+     */
+    static void writeJsonArray(JsonWriter writer, Object value) throws IOException {
+        if (value instanceof Stream<?> stream) {
+            try (stream) {
+                writeJsonArray(writer, stream.iterator());
+            }
+        } else if (value instanceof Iterable<?> iterable) {
+            writeJsonArray(writer, iterable.iterator());
+        } else {
+            writeJsonArray(writer, (Iterator<?>) value);
         }
     }
 
-    private static String typedObjectToString(Type type, Object value) {
+    static void writeJsonArray(JsonWriter writer, Iterator<?> items) throws IOException {
+        writer.beginArray();
+        while (items.hasNext()) {
+            Object item = items.next();
+            if (item == null) {
+                writer.nullValue();
+            } else {
+                GsonUtils.getDefaultGson().toJson(item, item.getClass(), writer);
+            }
+        }
+        writer.endArray();
+    }
+
+    static String typedObjectToString(Type type, Object value) {
         if (type == Integer.class || type == int.class
             || type == Long.class || type == long.class
             || type == Double.class || type == double.class
@@ -291,28 +497,234 @@ public class RestApiConfig {
     }
 
     private static void executeMethodForContext(
-            Method method,
+            Route route,
             Context context,
-            Object controllerInstance,
             IRestApiAuthenticationPlugin authenticationPlugin
-    ) throws InvocationTargetException, IllegalAccessException {
-        List<Object> parameters = buildParametersForMethod(method, context);
+    ) throws Exception {
+        // Shed requests over the limit before doing any work for them
+        AdaptiveConcurrencyLimiter concurrencyLimiter = route.getConcurrencyLimiter();
+        if (concurrencyLimiter != null && !concurrencyLimiter.tryAcquire()) {
+            rejectOverLimit(context);
+            return;
+        }
 
-        Object returnValue;
+        RouteMetrics metrics = route.getMetrics();
+        long startedAt = metrics.requestStarted();
 
-        // Authenticate if needed
-        if(authenticationPlugin != null) {
-            if (authenticationPlugin.authenticate(context)) {
-                returnValue = method.invoke(controllerInstance, parameters.toArray());
-            } else {
+        boolean pending = false;
+        try {
+            pending = handleRequest(route, context, authenticationPlugin, startedAt);
+        } catch (Exception | Error e) {
+            metrics.recordError();
+            throw e;
+        } finally {
+            if (!pending) {
+                finishRequest(route, startedAt, context.attribute(INVOKED_ATTRIBUTE) != null);
+            }
+        }
+    }
+
+    static void rejectOverLimit(Context context) {
+        context.status(HttpStatus.SERVICE_UNAVAILABLE);
+        context.header(Header.RETRY_AFTER, retryAfterSeconds);
+        context.result("Service Unavailable: Too many concurrent requests, try again later.");
+    }
+
+    /**
+     * Finishes a request in the route metrics and releases it from the route's concurrency limiter. Only requests that
+     * reached the invoker adjust the limit: the latency of rejected, invalid or cached requests would hide overload.
+     */
+    static void finishRequest(Route route, long startedAt, boolean invoked) {
+        route.getMetrics().requestFinished(startedAt);
+
+        AdaptiveConcurrencyLimiter concurrencyLimiter = route.getConcurrencyLimiter();
+        if (concurrencyLimiter == null) {
+            return;
+        }
+
+        if (invoked) {
+            concurrencyLimiter.release(System.nanoTime() - startedAt);
+        } else {
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * Handles a request to a route and returns {@code true} if the response is completed asynchronously, in which case
+     * the completion also finishes the request in the route metrics.
+     */
+    private static boolean handleRequest(
+            Route route,
+            Context context,
+            IRestApiAuthenticationPlugin authenticationPlugin,
+            long startedAt
+    ) throws Exception {
+        RouteMetrics metrics = route.getMetrics();
+        long phaseStartedAt = startedAt;
+
+        // Authenticate and authorize before binding, so rejected requests never pay for parsing the request
+        AuthenticatedPrincipal principal = null;
+        if (authenticationPlugin != null) {
+            principal = authenticationPlugin.authenticatePrincipal(context);
+            if (principal == null) {
                 context.status(HttpStatus.UNAUTHORIZED);
                 context.result("Forbidden: You don't have access to this resource!");
-                return;
+                return false;
+            }
+
+            if (!principal.hasAnyRole(route.getRoleMask())) {
+                context.status(HttpStatus.FORBIDDEN);
+                context.result("Forbidden: You don't have access to this resource!");
+                return false;
+            }
+
+            context.attribute(AuthenticatedPrincipal.CONTEXT_ATTRIBUTE, principal);
+            phaseStartedAt = metrics.recordPhase(RequestPhase.AUTHENTICATION, phaseStartedAt);
+        }
+
+        RateLimiter rateLimiter = route.getRateLimiter();
+        if (rateLimiter != null) {
+            long waitNanos = rateLimiter.tryAcquire(rateLimiter.clientKey(context, principal));
+            if (waitNanos > 0) {
+                context.status(HttpStatus.TOO_MANY_REQUESTS);
+                context.header(Header.RETRY_AFTER, RateLimiter.retryAfterSeconds(waitNanos));
+                context.result(TOO_MANY_REQUESTS_MESSAGE);
+                return false;
+            }
+        }
+
+        Object[] arguments = route.getBinding().bind(context);
+        phaseStartedAt = metrics.recordPhase(RequestPhase.BINDING, phaseStartedAt);
+
+        // Serve cached responses without calling the controller
+        ResponseCache responseCache = route.getResponseCache();
+        String cacheKey = null;
+        if (responseCache != null) {
+            cacheKey = responseCache.keyFor(context);
+
+            CachedResponse cachedResponse = responseCache.get(cacheKey);
+            if (cachedResponse != null) {
+                sendCachedResponse(context, cachedResponse);
+                metrics.recordPhase(RequestPhase.SERIALIZATION, phaseStartedAt);
+                return false;
             }
+        }
+
+        long invokedAt = phaseStartedAt;
+        context.attribute(INVOKED_ATTRIBUTE, Boolean.TRUE);
+        Object returnValue = route.getInvoker().invoke(arguments);
+
+        // Release the request thread while the result is pending and respond once it completes
+        if (returnValue instanceof CompletionStage<?> completionStage) {
+            String completionCacheKey = cacheKey;
+            context.future(() -> completionStage
+                    .thenAccept(completedValue -> {
+                        long serializationStartedAt = metrics.recordPhase(RequestPhase.INVOCATION, invokedAt);
+                        try {
+                            completeResponse(context, responseCache, completionCacheKey, completedValue);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        metrics.recordPhase(RequestPhase.SERIALIZATION, serializationStartedAt);
+                    })
+                    .whenComplete((ignored, failure) -> {
+                        if (failure != null) {
+                            metrics.recordError();
+                        }
+                        finishRequest(route, startedAt, true);
+                    })
+                    .toCompletableFuture()
+            );
+            return true;
+        }
+
+        phaseStartedAt = metrics.recordPhase(RequestPhase.INVOCATION, invokedAt);
+        completeResponse(context, responseCache, cacheKey, returnValue);
+        metrics.recordPhase(RequestPhase.SERIALIZATION, phaseStartedAt);
+
+        return false;
+    }
+
+    private static void completeResponse(
+            Context context,
+            ResponseCache responseCache,
+            String cacheKey,
+            Object returnValue
+    ) throws IOException {
+        if (responseCache == null) {
+            sendReturnValue(context, returnValue);
+            return;
+        }
+
+        CachedResponse response = renderResponse(context, returnValue, responseCache.expiresAt());
+        if (response.getStatus() == HttpStatus.OK) {
+            responseCache.put(cacheKey, response);
+        }
+
+        sendCachedResponse(context, response);
+    }
+
+    /**
+     * Serializes a return value the same way {@link #sendReturnValue(Context, Object)} sends it, but into a byte array
+     * that can be cached.
+     */
+    private static CachedResponse renderResponse(Context context, Object returnValue, long expiresAt)
+            throws IOException {
+        HttpStatus status = HttpStatus.OK;
+        Map<String, String> headers = Map.of();
+        Object value = returnValue;
+
+        if (returnValue instanceof ResponseEntity<?> responseEntity) {
+            status = responseEntity.statusCode;
+            headers = Map.copyOf(responseEntity.headers);
+            value = responseEntity.entity;
+        }
+
+        IMediaCodec codec = MediaCodecs.forAccept(context.header(Header.ACCEPT));
+
+        String contentType = null;
+        byte[] body;
+        if (value == null) {
+            body = new byte[0];
+        } else if (codec != JsonMediaCodec.INSTANCE) {
+            contentType = codec.getMediaType();
+            body = encode(codec, value);
+        } else if (typedObjectToString(value.getClass(), value) != null) {
+            body = value.toString().getBytes(StandardCharsets.UTF_8);
+        } else if (isJsonArray(value)) {
+            contentType = ContentType.JSON;
+            body = encode(codec, value);
         } else {
-            returnValue = method.invoke(controllerInstance, parameters.toArray());
+            body = context.jsonMapper().toJsonString(value, value.getClass()).getBytes(StandardCharsets.UTF_8);
         }
 
+        return new CachedResponse(status, headers, contentType, body, expiresAt);
+    }
+
+    private static void sendCachedResponse(Context context, CachedResponse response) {
+        context.header(Header.VARY, Header.ACCEPT);
+        context.header(Header.ETAG, response.getEtag());
+
+        if (response.matches(context.header(Header.IF_NONE_MATCH))) {
+            context.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+
+        context.status(response.getStatus());
+        for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+            context.header(header.getKey(), header.getValue());
+        }
+        if (response.getContentType() != null) {
+            context.contentType(response.getContentType());
+        }
+
+        context.result(response.getBody());
+    }
+
+    private static void sendReturnValue(Context context, Object returnValue) throws IOException {
+        // The body's media type depends on the Accept header
+        context.header(Header.VARY, Header.ACCEPT);
+
         if (returnValue instanceof ResponseEntity<?> responseEntity) {
             context.status(responseEntity.statusCode);
 
@@ -330,19 +742,18 @@ public class RestApiConfig {
 
     private static void handleRequestAnnotation(
             Annotation requestAnnotation,
-            String endpoint,
-            Method method,
-            Object controllerInstance,
-            IRestApiAuthenticationPlugin authenticationPlugin,
-            RouteRole[] roles
+            Route route,
+            IRestApiAuthenticationPlugin authenticationPlugin
     ) {
+        String endpoint = route.getEndpoint();
+        RouteRole[] roles = route.getRoles();
+
         if (requestAnnotation instanceof Get) {
             JettyServer.instance.app.get(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
@@ -351,9 +762,8 @@ public class RestApiConfig {
             JettyServer.instance.app.post(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
@@ -362,9 +772,8 @@ public class RestApiConfig {
             JettyServer.instance.app.put(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
@@ -373,9 +782,8 @@ public class RestApiConfig {
             JettyServer.instance.app.delete(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
@@ -384,9 +792,8 @@ public class RestApiConfig {
             JettyServer.instance.app.patch(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
@@ -395,9 +802,8 @@ public class RestApiConfig {
             JettyServer.instance.app.head(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
@@ -406,9 +812,8 @@ public class RestApiConfig {
             JettyServer.instance.app.options(
                     endpoint,
                     context -> executeMethodForContext(
-                            method,
+                            route,
                             context,
-                            controllerInstance,
                             authenticationPlugin
                     ),
                     roles
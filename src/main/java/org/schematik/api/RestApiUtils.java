@@ -4,16 +4,65 @@ import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 import org.reflections.util.ConfigurationBuilder;
 import org.schematik.Application;
+import org.schematik.StartupReport;
 import org.schematik.api.annotation.Controller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public class RestApiUtils {
+    static Logger logger = LoggerFactory.getLogger(RestApiUtils.class);
+
+    private static ControllerIndex controllerIndex;
+
+    /**
+     * Finds the controllers on a separate thread, so that discovery can overlap with the plugin registration.
+     */
+    public static CompletableFuture<Set<Class<?>>> discoverControllerClasses() {
+        CompletableFuture<Set<Class<?>>> controllerClasses = new CompletableFuture<>();
+
+        Thread.ofPlatform().name("schematik-controller-discovery").start(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                controllerClasses.complete(getControllerClasses());
+            } catch (Throwable t) {
+                controllerClasses.completeExceptionally(t);
+            }
+            StartupReport.recordPhase("controller discovery", startedAt);
+        });
+
+        return controllerClasses;
+    }
+
+    /**
+     * Returns the controllers in the main class's package. They are read from the compile time controller index if the
+     * main class was compiled with one, and found by scanning the package otherwise.
+     */
     public static Set<Class<?>> getControllerClasses() throws ClassNotFoundException {
         Class<?> mainClass = Class.forName(Application.getProperty("class.main"));
 
         Package mainClassPackage = mainClass.getPackage();
 
+        try {
+            controllerIndex = ControllerIndex.load(mainClass);
+        } catch (IOException e) {
+            logger.warn("Unable to read the controller index. Falling back to classpath scanning.", e);
+            controllerIndex = null;
+        }
+
+        if (controllerIndex != null) {
+            return getIndexedControllerClasses(mainClass.getClassLoader(), mainClassPackage.getName());
+        }
+
+        logger.info("No controller index found. Scanning " + mainClassPackage.getName() + " for controllers...");
+
         Reflections reflections = new Reflections(
                 new ConfigurationBuilder()
                         .forPackages(mainClassPackage.getName())
@@ -25,4 +74,44 @@ public class RestApiUtils {
 
         return entities;
     }
+
+    /**
+     * Returns the methods of the controller that may be request methods: the indexed ones if controllers were read
+     * from the index, or all declared methods otherwise.
+     */
+    public static List<Method> getControllerMethods(Class<?> controllerClass) {
+        if (controllerIndex != null) {
+            return controllerIndex.getRequestMethods(controllerClass);
+        }
+
+        return Arrays.asList(controllerClass.getDeclaredMethods());
+    }
+
+    private static Set<Class<?>> getIndexedControllerClasses(ClassLoader classLoader, String packageName) {
+        String packagePrefix = packageName + ".";
+
+        Set<Class<?>> controllerClasses = new LinkedHashSet<>();
+        for (String className : controllerIndex.getControllerClassNames()) {
+            if (!className.startsWith(packagePrefix)) {
+                continue;
+            }
+
+            Class<?> controllerClass;
+            try {
+                controllerClass = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                // The index is stale, e.g. the controller was deleted without a clean build
+                logger.warn(String.format("Skipping controller %s from the controller index: %s", className, e));
+                continue;
+            }
+
+            if (controllerClass.isAnnotationPresent(Controller.class)) {
+                controllerClasses.add(controllerClass);
+            }
+        }
+
+        logger.info(String.format("Read %d controllers from the controller index.", controllerClasses.size()));
+
+        return controllerClasses;
+    }
 }
@@ -0,0 +1,100 @@
+package org.schematik.api;
+
+import io.javalin.security.RouteRole;
+import org.schematik.api.cache.ResponseCache;
+import org.schematik.api.limit.AdaptiveConcurrencyLimiter;
+import org.schematik.api.limit.RateLimiter;
+import org.schematik.api.metrics.RouteMetrics;
+import org.schematik.api.security.RouteRoleMask;
+
+/**
+ * A controller method registered as an endpoint, together with everything that {@link RestApiConfig} resolves for it
+ * at startup.
+ */
+public class Route {
+    private final String httpMethod;
+    private final String endpoint;
+    private final RouteBinding binding;
+    private final RouteInvoker invoker;
+    private final RouteRole[] roles;
+    private final long roleMask;
+    private final ResponseCache responseCache;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RateLimiter rateLimiter;
+    private final RouteMetrics metrics;
+
+    public Route(
+            String httpMethod,
+            String endpoint,
+            RouteBinding binding,
+            RouteInvoker invoker,
+            RouteRole[] roles,
+            ResponseCache responseCache,
+            boolean concurrencyLimited,
+            RateLimiter rateLimiter
+    ) {
+        this.httpMethod = httpMethod;
+        this.endpoint = endpoint;
+        this.binding = binding;
+        this.invoker = invoker;
+        this.roles = roles;
+        this.roleMask = RouteRoleMask.register(roles);
+        this.responseCache = responseCache;
+        this.concurrencyLimiter = concurrencyLimited
+                ? AdaptiveConcurrencyLimiter.fromProperties(httpMethod + " " + endpoint)
+                : null;
+        this.rateLimiter = rateLimiter;
+        this.metrics = new RouteMetrics(httpMethod + " " + endpoint);
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public RouteBinding getBinding() {
+        return binding;
+    }
+
+    public RouteInvoker getInvoker() {
+        return invoker;
+    }
+
+    public RouteRole[] getRoles() {
+        return roles;
+    }
+
+    public long getRoleMask() {
+        return roleMask;
+    }
+
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Returns the limiter of the route's concurrency, or {@code null} if its concurrency is not limited.
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Returns the limiter of the route's request rate per client, or {@code null} if its rate is not limited.
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public RouteMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return httpMethod + " " + endpoint;
+    }
+}
@@ -0,0 +1,309 @@
+package org.schematik.api;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import io.javalin.http.BadRequestResponse;
+import io.javalin.http.ContentTooLargeResponse;
+import io.javalin.http.Context;
+import io.javalin.http.UnsupportedMediaTypeResponse;
+import org.schematik.api.annotation.parameter.PathParam;
+import org.schematik.api.annotation.parameter.QueryParam;
+import org.schematik.api.annotation.parameter.RequestBody;
+import org.schematik.api.codec.IMediaCodec;
+import org.schematik.api.codec.ITreeMediaCodec;
+import org.schematik.api.codec.MediaCodecs;
+import org.schematik.gson.GsonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Binding plan for the parameters of a controller method. The plan is resolved once, when the route is registered:
+ * every parameter gets a {@link ParameterBinder} that extracts its raw value from the request and, for path and query
+ * parameters, a converter from {@link ParameterConverters} that the route's {@link RouteInvoker} applies to the raw
+ * value. Binding a request is then a single pass over the binders.
+ */
+public class RouteBinding {
+    static Set<Class<? extends Annotation>> parameterTypeAnnotations = Set.of(
+            PathParam.class,
+            QueryParam.class,
+            RequestBody.class
+    );
+
+    /**
+     * The limits of request bodies read from a Javalin context: {@code http.maxRequestSize} of the Javalin config, and
+     * {@code api.streamedBody.maxBytes} for {@code Iterator} and {@code Stream} parameters. {@code 0} means no limit.
+     */
+    static volatile long maxBodyBytes = 1_000_000;
+    static volatile long maxStreamedBodyBytes = 0;
+
+    private final ParameterBinder[] binders;
+    private final MethodHandle[] converters;
+    private final boolean requiresContext;
+
+    private RouteBinding(ParameterBinder[] binders, MethodHandle[] converters, boolean requiresContext) {
+        this.binders = binders;
+        this.converters = converters;
+        this.requiresContext = requiresContext;
+    }
+
+    public static RouteBinding forMethod(Method method, String endpoint) {
+        Parameter[] parameters = method.getParameters();
+        ParameterBinder[] binders = new ParameterBinder[parameters.length];
+        MethodHandle[] converters = new MethodHandle[parameters.length];
+        boolean requiresContext = false;
+
+        for (int i = 0; i < parameters.length; i++) {
+            Parameter parameter = parameters[i];
+
+            int numberOfParameterAnnotations = 0;
+            Annotation parameterAnnotation = null;
+            for (Annotation annotation : parameter.getDeclaredAnnotations()) {
+                if (parameterTypeAnnotations.contains(annotation.annotationType())) {
+                    numberOfParameterAnnotations++;
+                    parameterAnnotation = annotation;
+                }
+            }
+
+            if (numberOfParameterAnnotations > 1) {
+                throw new IllegalArgumentException(String.format(
+                        "Parameter %s in method %s has more than one parameter annotations. Only one parameter annotation is allowed per parameter.",
+                        parameter.getName(),
+                        method.getName()
+                ));
+            }
+
+            if (parameterAnnotation instanceof PathParam pathParamAnnotation) {
+                String parameterName = pathParamAnnotation.name().isEmpty()
+                        ? parameter.getName()
+                        : pathParamAnnotation.name();
+
+                if (!endpoint.contains("{" + parameterName + "}") && !endpoint.contains("<" + parameterName + ">")) {
+                    throw new IllegalArgumentException(String.format(
+                            "Path parameter %s in method %s is not part of endpoint %s.",
+                            parameterName,
+                            method.getName(),
+                            endpoint
+                    ));
+                }
+
+                binders[i] = request -> request.pathParam(parameterName);
+                converters[i] = ParameterConverters.forType(parameter.getType(), parameterName);
+            } else if (parameterAnnotation instanceof QueryParam queryParamAnnotation) {
+                String parameterName = queryParamAnnotation.name().isEmpty()
+                        ? parameter.getName()
+                        : queryParamAnnotation.name();
+
+                binders[i] = request -> request.queryParam(parameterName);
+                converters[i] = ParameterConverters.forType(parameter.getType(), parameterName);
+            } else if (parameterAnnotation instanceof RequestBody) {
+                Class<?> parameterClass = parameter.getType();
+
+                if (parameterClass == Iterator.class || parameterClass == Stream.class) {
+                    Type elementType = elementTypeOf(parameter, method);
+
+                    binders[i] = parameterClass == Stream.class
+                            ? request -> streamOf(request.openBodyIterator(elementType))
+                            : request -> request.openBodyIterator(elementType);
+                } else {
+                    Type parameterType = parameter.getParameterizedType();
+
+                    binders[i] = request -> request.readBody(parameterType);
+                }
+            } else if (parameter.getType().equals(Context.class)) {
+                binders[i] = RouteRequest::context;
+                requiresContext = true;
+            } else {
+                throw new IllegalArgumentException(String.format(
+                        "Parameter %s in method %s has no parameter annotation.",
+                        parameter.getName(),
+                        method.getName()
+                ));
+            }
+        }
+
+        return new RouteBinding(binders, converters, requiresContext);
+    }
+
+    private static Type elementTypeOf(Parameter parameter, Method method) {
+        if (parameter.getParameterizedType() instanceof ParameterizedType parameterizedType) {
+            return parameterizedType.getActualTypeArguments()[0];
+        }
+
+        throw new IllegalArgumentException(String.format(
+                "Request body parameter %s in method %s must declare its element type.",
+                parameter.getName(),
+                method.getName()
+        ));
+    }
+
+    /**
+     * Returns the codec registered for the content type of a request body, or answers the request with
+     * {@code 415 Unsupported Media Type} if there is none.
+     */
+    static IMediaCodec codecFor(String contentType) {
+        IMediaCodec codec = MediaCodecs.forContentType(contentType);
+        if (codec == null) {
+            throw new UnsupportedMediaTypeResponse();
+        }
+
+        return codec;
+    }
+
+    /**
+     * Returns a reader for the body, decoded by the codec registered for its content type.
+     */
+    static JsonReader newBodyReader(IMediaCodec codec, InputStream body) {
+        try {
+            return codec.newReader(body);
+        } catch (IOException e) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+    }
+
+    static JsonElement decodeBody(ITreeMediaCodec codec, InputStream body) {
+        try {
+            return codec.decode(body);
+        } catch (IOException e) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+    }
+
+    static void configureBodyLimits(long maxBodyBytes, long maxStreamedBodyBytes) {
+        RouteBinding.maxBodyBytes = maxBodyBytes;
+        RouteBinding.maxStreamedBodyBytes = maxStreamedBodyBytes;
+    }
+
+    /**
+     * Returns the body of a request, which answers the request with {@code 413 Content Too Large} once more than
+     * {@code maxBytes} are read from it. Requests that announce a longer body are answered before it is read.
+     */
+    static InputStream limitedBody(Context context, long maxBytes) {
+        if (maxBytes <= 0) {
+            return context.bodyInputStream();
+        }
+
+        if (context.req().getContentLengthLong() > maxBytes) {
+            throw new ContentTooLargeResponse();
+        }
+
+        return new LimitedInputStream(context.bodyInputStream(), maxBytes);
+    }
+
+    static Object readBody(Context context, Type parameterType) {
+        return readBody(limitedBody(context, maxBodyBytes), context.contentType(), parameterType);
+    }
+
+    static <T> Iterator<T> openBodyIterator(Context context, Type elementType) {
+        // Bodies of tree codecs are decoded as a whole, so they are limited like the bodies that are not streamed
+        long maxBytes = codecFor(context.contentType()) instanceof ITreeMediaCodec ? maxBodyBytes : maxStreamedBodyBytes;
+
+        return openBodyIterator(limitedBody(context, maxBytes), context.contentType(), elementType);
+    }
+
+    static Object readBody(InputStream body, String contentType, Type parameterType) {
+        IMediaCodec codec = codecFor(contentType);
+        if (codec instanceof ITreeMediaCodec treeCodec) {
+            return readBody(decodeBody(treeCodec, body), parameterType);
+        }
+
+        try {
+            return GsonUtils.getDefaultGson().fromJson(newBodyReader(codec, body), parameterType);
+        } catch (JsonParseException e) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+    }
+
+    static Object readBody(JsonElement body, Type parameterType) {
+        try {
+            return GsonUtils.getDefaultGson().fromJson(body, parameterType);
+        } catch (JsonParseException e) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+    }
+
+    static <T> Iterator<T> openBodyIterator(InputStream body, String contentType, Type elementType) {
+        IMediaCodec codec = codecFor(contentType);
+        if (codec instanceof ITreeMediaCodec treeCodec) {
+            return openBodyIterator(decodeBody(treeCodec, body), elementType);
+        }
+
+        return new JsonBodyIterator<>(
+                GsonUtils.getDefaultGson(),
+                newBodyReader(codec, body),
+                elementType,
+                MediaCodecs.isDelimitedJson(contentType)
+        );
+    }
+
+    /**
+     * Iterates over the elements of a body that has already been decoded into a tree, binding each one when it is
+     * asked for.
+     */
+    static <T> Iterator<T> openBodyIterator(JsonElement body, Type elementType) {
+        if (!body.isJsonArray()) {
+            throw new BadRequestResponse("Malformed request body");
+        }
+
+        Iterator<JsonElement> elements = ((JsonArray) body).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return elements.hasNext();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                return (T) readBody(elements.next(), elementType);
+            }
+        };
+    }
+
+    private static <T> Stream<T> streamOf(Iterator<T> iterator) {
+        if (iterator instanceof JsonBodyIterator<T> bodyIterator) {
+            return bodyIterator.stream();
+        }
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    public Object[] bind(Context context) {
+        return bind(new ContextRouteRequest(context));
+    }
+
+    public Object[] bind(RouteRequest request) {
+        Object[] arguments = new Object[binders.length];
+        for (int i = 0; i < binders.length; i++) {
+            arguments[i] = binders[i].bind(request);
+        }
+
+        return arguments;
+    }
+
+    public MethodHandle[] getConverters() {
+        return converters;
+    }
+
+    /**
+     * Returns {@code true} if the method takes the Javalin {@link Context} as a parameter, in which case it can only be
+     * called for requests received by the server.
+     */
+    public boolean requiresContext() {
+        return requiresContext;
+    }
+}
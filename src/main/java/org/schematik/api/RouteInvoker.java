@@ -0,0 +1,10 @@
+package org.schematik.api;
+
+/**
+ * Calls the controller method behind a registered route. Implementations are created once per route when
+ * {@link RestApiConfig} initializes, so invoking a route does not go through {@link java.lang.reflect.Method#invoke}.
+ */
+@FunctionalInterface
+public interface RouteInvoker {
+    Object invoke(Object[] arguments) throws Exception;
+}
@@ -0,0 +1,34 @@
+package org.schematik.api;
+
+import io.javalin.http.Context;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+
+/**
+ * The parts of a request that {@link ParameterBinder}s read. Requests received by the server are backed by their
+ * Javalin {@link Context}; the sub-requests of a batch are not, so that several of them can be handled in parallel.
+ */
+public interface RouteRequest {
+    String pathParam(String name);
+
+    String queryParam(String name);
+
+    String contentType();
+
+    /**
+     * Reads the request body as the given type, decoded according to the content type of the request.
+     */
+    Object readBody(Type type);
+
+    /**
+     * Opens an iterator that reads the elements of the request body one at a time, if the content type of the request
+     * allows that.
+     */
+    <T> Iterator<T> openBodyIterator(Type elementType);
+
+    /**
+     * Returns the Javalin context of the request, or {@code null} if the request has none.
+     */
+    Context context();
+}
@@ -0,0 +1,15 @@
+package org.schematik.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cached {
+    long ttlMillis() default 5000;
+    int maxEntries() default 1000;
+    long maxBytes() default 16 * 1024 * 1024;
+    boolean varyByPrincipal() default false;
+}
@@ -0,0 +1,21 @@
+package org.schematik.api.annotation;
+
+/**
+ * What the requests to a rate limited endpoint are counted by. Requests that don't carry the chosen key, such as
+ * anonymous requests when limiting by principal, are counted by their remote address.
+ */
+public enum RateLimitKey {
+    /**
+     * The name of the authenticated principal. Principals without a name are counted by their remote address.
+     */
+    PRINCIPAL,
+    /**
+     * The API key in the header set by the {@code api.rateLimit.apiKeyHeader} property, if the request is
+     * authenticated. The authentication plugin should check that key, or clients could make up a new one per request.
+     */
+    API_KEY,
+    /**
+     * The remote address of the request.
+     */
+    ADDRESS
+}
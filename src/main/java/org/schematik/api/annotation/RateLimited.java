@@ -0,0 +1,14 @@
+package org.schematik.api.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+    double permitsPerSecond();
+    int burst() default 1;
+    RateLimitKey key() default RateLimitKey.PRINCIPAL;
+}
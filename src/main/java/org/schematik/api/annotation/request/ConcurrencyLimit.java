@@ -0,0 +1,13 @@
+package org.schematik.api.annotation.request;
+
+/**
+ * Whether the concurrency of an endpoint is limited by an adaptive concurrency limiter.
+ */
+public enum ConcurrencyLimit {
+    /**
+     * Limited if the {@code api.concurrencyLimit.enabled} property is {@code true}.
+     */
+    DEFAULT,
+    ADAPTIVE,
+    NONE
+}
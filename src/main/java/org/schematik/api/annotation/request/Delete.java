@@ -14,4 +14,5 @@ public @interface Delete {
     String endpoint() default "";
     Class<? extends Enum<? extends RouteRole>> roleClass() default DefaultUserRole.class;
     String[] roles() default {};
+    ConcurrencyLimit concurrencyLimit() default ConcurrencyLimit.DEFAULT;
 }
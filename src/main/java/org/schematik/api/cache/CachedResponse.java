@@ -0,0 +1,95 @@
+package org.schematik.api.cache;
+
+import io.javalin.http.HttpStatus;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * A fully serialized response held by a {@link ResponseCache}, together with the strong ETag of its body.
+ */
+public class CachedResponse {
+    private final HttpStatus status;
+    private final Map<String, String> headers;
+    private final String contentType;
+    private final byte[] body;
+    private final String etag;
+    private final long expiresAt;
+
+    public CachedResponse(
+            HttpStatus status,
+            Map<String, String> headers,
+            String contentType,
+            byte[] body,
+            long expiresAt
+    ) {
+        this.status = status;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+        this.etag = etagOf(body);
+        this.expiresAt = expiresAt;
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Checks an {@code If-None-Match} request header against the ETag of this response.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    public long size() {
+        return body.length;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
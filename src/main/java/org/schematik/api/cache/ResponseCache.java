@@ -0,0 +1,175 @@
+package org.schematik.api.cache;
+
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import org.schematik.api.annotation.Cached;
+import org.schematik.api.codec.MediaCodecs;
+import org.schematik.api.security.AuthenticatedPrincipal;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of serialized responses for a single route annotated with {@link Cached}. Reads don't lock: every hit only
+ * records when the entry was last used. When the route has more than {@code maxEntries} entries, or their bodies take
+ * more than {@code maxBytes} in total, expired entries and then the least recently used ones are evicted in one pass,
+ * until the cache is a tenth below its limits, so the cost of eviction is shared by many writes.
+ */
+public class ResponseCache {
+    private static final class Entry {
+        final CachedResponse response;
+        volatile long lastUsedAt = System.nanoTime();
+
+        Entry(CachedResponse response) {
+            this.response = response;
+        }
+    }
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final boolean varyByPrincipal;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+
+    public ResponseCache(Cached cached) {
+        this.ttlMillis = cached.ttlMillis();
+        this.maxEntries = cached.maxEntries();
+        this.maxBytes = cached.maxBytes();
+        this.varyByPrincipal = cached.varyByPrincipal();
+    }
+
+    /**
+     * Builds the cache key of a request from its path parameters, its query parameters and, if the route varies by
+     * principal, the name of the authenticated principal or, without one, a digest of the request credentials.
+     * Parameters are sorted, so their order in the URL does not matter. Names and values are URL-encoded, so a value
+     * that contains separators can't produce the key of another request.
+     */
+    public String keyFor(Context context) {
+        StringBuilder key = new StringBuilder();
+
+        new TreeMap<>(context.pathParamMap()).forEach((name, value) ->
+                key.append(encode(name)).append('=').append(encode(value)).append('/')
+        );
+        key.append('?');
+        for (Map.Entry<String, List<String>> queryParam : new TreeMap<>(context.queryParamMap()).entrySet()) {
+            for (String value : queryParam.getValue()) {
+                key.append(encode(queryParam.getKey())).append('=').append(encode(value)).append('&');
+            }
+        }
+
+        key.append('|').append(MediaCodecs.forAccept(context.header(Header.ACCEPT)).getMediaType());
+
+        if (varyByPrincipal) {
+            AuthenticatedPrincipal principal = context.attribute(AuthenticatedPrincipal.CONTEXT_ATTRIBUTE);
+            if (principal != null && principal.getName() != null) {
+                key.append('#').append(encode(principal.getName()));
+            } else {
+                key.append('$').append(credentialDigest(context.header(Header.AUTHORIZATION)));
+            }
+        }
+
+        return key.toString();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String credentialDigest(String credentials) {
+        if (credentials == null) {
+            return "";
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credentials.getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long expiresAt() {
+        return System.currentTimeMillis() + ttlMillis;
+    }
+
+    public CachedResponse get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.response.isExpired(System.currentTimeMillis())) {
+            remove(key, entry);
+            return null;
+        }
+
+        entry.lastUsedAt = System.nanoTime();
+
+        return entry.response;
+    }
+
+    public void put(String key, CachedResponse response) {
+        if (response.size() > maxBytes) {
+            return;
+        }
+
+        Entry previous = entries.put(key, new Entry(response));
+        if (previous != null) {
+            totalBytes.addAndGet(-previous.response.size());
+        }
+        totalBytes.addAndGet(response.size());
+
+        if (entries.size() > maxEntries || totalBytes.get() > maxBytes) {
+            evict();
+        }
+    }
+
+    public synchronized void clear() {
+        entries.forEach(this::remove);
+    }
+
+    private synchronized void evict() {
+        // Another writer may have evicted while this one waited for the lock
+        if (entries.size() <= maxEntries && totalBytes.get() <= maxBytes) {
+            return;
+        }
+
+        int targetEntries = maxEntries - maxEntries / 10;
+        long targetBytes = maxBytes - maxBytes / 10;
+        long now = System.currentTimeMillis();
+
+        List<Map.Entry<String, Entry>> candidates = new ArrayList<>(entries.entrySet());
+        candidates.sort(Comparator
+                .comparing((Map.Entry<String, Entry> candidate) -> !candidate.getValue().response.isExpired(now))
+                .thenComparingLong(candidate -> candidate.getValue().lastUsedAt));
+
+        for (Map.Entry<String, Entry> candidate : candidates) {
+            boolean expired = candidate.getValue().response.isExpired(now);
+            if (!expired && entries.size() <= targetEntries && totalBytes.get() <= targetBytes) {
+                break;
+            }
+
+            remove(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        // Only the thread that removes the entry accounts for its size
+        if (entries.remove(key, entry)) {
+            totalBytes.addAndGet(-entry.response.size());
+        }
+    }
+}
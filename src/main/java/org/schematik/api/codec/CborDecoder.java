@@ -0,0 +1,254 @@
+package org.schematik.api.codec;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes a CBOR data item into a Gson tree. Byte strings become arrays of numbers, the way Gson represents
+ * {@code byte[]}, bignums and decimal fractions become {@link BigInteger} and {@link BigDecimal} numbers, and other
+ * tags are ignored.
+ */
+public class CborDecoder {
+    private static final int MAX_DEPTH = 512;
+    private static final int BREAK = 0xff;
+
+    private final InputStream inputStream;
+    private int depth;
+
+    public CborDecoder(InputStream inputStream) {
+        this.inputStream = inputStream;
+    }
+
+    /**
+     * Decodes the next data item, or returns {@link JsonNull} if the input is empty.
+     */
+    public JsonElement decode() throws IOException {
+        int initialByte = inputStream.read();
+        if (initialByte < 0) {
+            return JsonNull.INSTANCE;
+        }
+
+        return decode(initialByte);
+    }
+
+    private JsonElement decode(int initialByte) throws IOException {
+        int majorType = initialByte >>> 5;
+        int additionalInformation = initialByte & 0x1f;
+
+        switch (majorType) {
+            case 0:
+                return unsigned(readArgument(additionalInformation));
+            case 1: {
+                long argument = readArgument(additionalInformation);
+                return argument >= 0
+                        ? new JsonPrimitive(-1 - argument)
+                        : new JsonPrimitive(BigInteger.ONE.negate().subtract(unsignedBigInteger(argument)));
+            }
+            case 2:
+                return byteArray(readBytes(additionalInformation, 2));
+            case 3:
+                return new JsonPrimitive(new String(readBytes(additionalInformation, 3), StandardCharsets.UTF_8));
+            case 4:
+                return decodeArray(additionalInformation);
+            case 5:
+                return decodeMap(additionalInformation);
+            case 6:
+                return decodeTag(readArgument(additionalInformation));
+            default:
+                return decodeSimpleValue(additionalInformation);
+        }
+    }
+
+    private JsonElement decodeArray(int additionalInformation) throws IOException {
+        enter();
+
+        JsonArray array = new JsonArray();
+        if (additionalInformation == 31) {
+            int initialByte;
+            while ((initialByte = readByte()) != BREAK) {
+                array.add(decode(initialByte));
+            }
+        } else {
+            long length = readArgument(additionalInformation);
+            for (long i = 0; i < length; i++) {
+                array.add(decode(readByte()));
+            }
+        }
+
+        depth--;
+        return array;
+    }
+
+    private JsonElement decodeMap(int additionalInformation) throws IOException {
+        enter();
+
+        JsonObject object = new JsonObject();
+        if (additionalInformation == 31) {
+            int initialByte;
+            while ((initialByte = readByte()) != BREAK) {
+                object.add(decodeKey(initialByte), decode(readByte()));
+            }
+        } else {
+            long length = readArgument(additionalInformation);
+            for (long i = 0; i < length; i++) {
+                object.add(decodeKey(readByte()), decode(readByte()));
+            }
+        }
+
+        depth--;
+        return object;
+    }
+
+    private String decodeKey(int initialByte) throws IOException {
+        if (initialByte >>> 5 == 3) {
+            return new String(readBytes(initialByte & 0x1f, 3), StandardCharsets.UTF_8);
+        }
+
+        JsonElement key = decode(initialByte);
+        if (!key.isJsonPrimitive()) {
+            throw new IOException("Unsupported CBOR map key: " + key);
+        }
+
+        return key.getAsString();
+    }
+
+    private JsonElement decodeTag(long tag) throws IOException {
+        enter();
+        JsonElement content = decode(readByte());
+        depth--;
+
+        if ((tag == 2 || tag == 3) && content.isJsonArray()) {
+            JsonArray bytes = content.getAsJsonArray();
+            byte[] magnitude = new byte[bytes.size()];
+            for (int i = 0; i < magnitude.length; i++) {
+                magnitude[i] = bytes.get(i).getAsByte();
+            }
+
+            BigInteger value = new BigInteger(1, magnitude);
+            return new JsonPrimitive(tag == 2 ? value : BigInteger.ONE.negate().subtract(value));
+        }
+        if (tag == 4 && content.isJsonArray() && content.getAsJsonArray().size() == 2) {
+            int exponent = content.getAsJsonArray().get(0).getAsInt();
+            BigInteger mantissa = content.getAsJsonArray().get(1).getAsBigInteger();
+            return new JsonPrimitive(new BigDecimal(mantissa, -exponent));
+        }
+
+        return content;
+    }
+
+    private JsonElement decodeSimpleValue(int additionalInformation) throws IOException {
+        switch (additionalInformation) {
+            case 20:
+                return new JsonPrimitive(false);
+            case 21:
+                return new JsonPrimitive(true);
+            case 22:
+            case 23:
+                return JsonNull.INSTANCE;
+            case 25:
+                return new JsonPrimitive(Float.float16ToFloat((short) readUnsigned(2)));
+            case 26:
+                return new JsonPrimitive(Float.intBitsToFloat((int) readUnsigned(4)));
+            case 27:
+                return new JsonPrimitive(Double.longBitsToDouble(readUnsigned(8)));
+            case 31:
+                throw new IOException("Unexpected CBOR break");
+            default:
+                throw new IOException("Unsupported CBOR simple value " + additionalInformation);
+        }
+    }
+
+    private JsonPrimitive unsigned(long value) {
+        return value >= 0 ? new JsonPrimitive(value) : new JsonPrimitive(unsignedBigInteger(value));
+    }
+
+    private static BigInteger unsignedBigInteger(long value) {
+        return new BigInteger(Long.toUnsignedString(value));
+    }
+
+    private static JsonArray byteArray(byte[] bytes) {
+        JsonArray array = new JsonArray(bytes.length);
+        for (byte value : bytes) {
+            array.add(value);
+        }
+
+        return array;
+    }
+
+    private byte[] readBytes(int additionalInformation, int majorType) throws IOException {
+        if (additionalInformation != 31) {
+            long length = readArgument(additionalInformation);
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IOException("CBOR string is too long");
+            }
+
+            byte[] bytes = inputStream.readNBytes((int) length);
+            if (bytes.length < length) {
+                throw new EOFException("Truncated CBOR string");
+            }
+
+            return bytes;
+        }
+
+        // Indefinite length strings are a sequence of definite length chunks of the same major type
+        ByteArrayOutputStream chunks = new ByteArrayOutputStream();
+        int initialByte;
+        while ((initialByte = readByte()) != BREAK) {
+            if (initialByte >>> 5 != majorType || (initialByte & 0x1f) == 31) {
+                throw new IOException("Invalid chunk in indefinite length CBOR string");
+            }
+            chunks.writeBytes(readBytes(initialByte & 0x1f, majorType));
+        }
+
+        return chunks.toByteArray();
+    }
+
+    private long readArgument(int additionalInformation) throws IOException {
+        if (additionalInformation < 24) {
+            return additionalInformation;
+        }
+
+        return switch (additionalInformation) {
+            case 24 -> readUnsigned(1);
+            case 25 -> readUnsigned(2);
+            case 26 -> readUnsigned(4);
+            case 27 -> readUnsigned(8);
+            default -> throw new IOException("Invalid CBOR additional information " + additionalInformation);
+        };
+    }
+
+    private long readUnsigned(int length) throws IOException {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << 8) | readByte();
+        }
+
+        return value;
+    }
+
+    private int readByte() throws IOException {
+        int value = inputStream.read();
+        if (value < 0) {
+            throw new EOFException("Truncated CBOR value");
+        }
+
+        return value;
+    }
+
+    private void enter() throws IOException {
+        if (++depth > MAX_DEPTH) {
+            throw new IOException("CBOR value is nested too deeply");
+        }
+    }
+}
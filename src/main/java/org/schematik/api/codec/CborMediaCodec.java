@@ -0,0 +1,37 @@
+package org.schematik.api.codec;
+
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * CBOR (RFC 8949), a binary encoding of the json data model. Numbers are written in binary, so large numeric
+ * payloads are smaller and cheaper to encode and decode than json text.
+ * <p>
+ * Responses are streamed. A request body is decoded into a tree before it is bound, see {@link ITreeMediaCodec}, so
+ * streamed {@code @RequestBody} parameters hold a CBOR body in memory as a whole.
+ */
+public class CborMediaCodec implements ITreeMediaCodec {
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    public static final CborMediaCodec INSTANCE = new CborMediaCodec();
+
+    @Override
+    public String getMediaType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public JsonWriter newWriter(OutputStream outputStream) {
+        return new CborWriter(outputStream);
+    }
+
+    @Override
+    public JsonElement decode(InputStream inputStream) throws IOException {
+        return new CborDecoder(new BufferedInputStream(inputStream)).decode();
+    }
+}
@@ -0,0 +1,367 @@
+package org.schematik.api.codec;
+
+import com.google.gson.JsonParser;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link JsonWriter} that writes CBOR instead of json text. Arrays and objects are written with indefinite length,
+ * so values can be streamed without knowing their size up front.
+ */
+public class CborWriter extends JsonWriter {
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1 << 5;
+    private static final int MAJOR_BYTES = 2 << 5;
+    private static final int MAJOR_TEXT = 3 << 5;
+    private static final int MAJOR_TAG = 6 << 5;
+
+    private static final int INDEFINITE_ARRAY = 0x9f;
+    private static final int INDEFINITE_MAP = 0xbf;
+    private static final int BREAK = 0xff;
+    private static final int FALSE = 0xf4;
+    private static final int TRUE = 0xf5;
+    private static final int NULL = 0xf6;
+    private static final int FLOAT32 = 0xfa;
+    private static final int FLOAT64 = 0xfb;
+
+    private static final int TAG_POSITIVE_BIGNUM = 2;
+    private static final int TAG_NEGATIVE_BIGNUM = 3;
+    private static final int TAG_DECIMAL_FRACTION = 4;
+
+    private static final BigInteger MIN_LONG = BigInteger.valueOf(Long.MIN_VALUE);
+    private static final BigInteger MAX_LONG = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private final OutputStream outputStream;
+    private final byte[] buffer = new byte[8192];
+    private int position;
+
+    private String deferredName;
+
+    public CborWriter(OutputStream outputStream) {
+        super(Writer.nullWriter());
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        writeDeferredName();
+        write(INDEFINITE_ARRAY);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        write(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        writeDeferredName();
+        write(INDEFINITE_MAP);
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        write(BREAK);
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        if (deferredName != null) {
+            throw new IllegalStateException("Already wrote a name, expecting a value.");
+        }
+
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        writeDeferredName();
+        writeText(value);
+        return this;
+    }
+
+    /**
+     * Parses the raw json value and writes it as CBOR.
+     */
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        Streams.write(JsonParser.parseString(value), this);
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null && !getSerializeNulls()) {
+            // Leave out the name as well, like JsonWriter does
+            deferredName = null;
+            return this;
+        }
+
+        writeDeferredName();
+        write(NULL);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        writeDeferredName();
+        write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        return value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) throws IOException {
+        checkFloatingPoint(value);
+
+        writeDeferredName();
+        ensureCapacity(5);
+        buffer[position++] = (byte) FLOAT32;
+        writeInt(Float.floatToIntBits(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        checkFloatingPoint(value);
+
+        // Doubles that are exact floats, such as most small fractions of two, take half the space
+        if ((float) value == value || Double.isNaN(value)) {
+            return value((float) value);
+        }
+
+        writeDeferredName();
+        ensureCapacity(9);
+        buffer[position++] = (byte) FLOAT64;
+        writeLong(Double.doubleToLongBits(value));
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        writeDeferredName();
+        if (value >= 0) {
+            writeHeader(MAJOR_UNSIGNED, value);
+        } else {
+            writeHeader(MAJOR_NEGATIVE, -1 - value);
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof AtomicInteger || value instanceof AtomicLong) {
+            return value(value.longValue());
+        }
+        if (value instanceof Double) {
+            return value(value.doubleValue());
+        }
+        if (value instanceof Float) {
+            return value(value.floatValue());
+        }
+        if (value instanceof BigInteger bigInteger) {
+            return value(bigInteger);
+        }
+
+        // BigDecimal, Gson's LazilyParsedNumber and other number types are written from their decimal representation
+        BigDecimal decimal;
+        try {
+            decimal = value instanceof BigDecimal bigDecimal ? bigDecimal : new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            // NaN or infinity of an unknown number type
+            return value(value.doubleValue());
+        }
+
+        if (decimal.scale() <= 0 && !(value instanceof BigDecimal)) {
+            return value(decimal.toBigIntegerExact());
+        }
+
+        writeDeferredName();
+        writeHeader(MAJOR_TAG, TAG_DECIMAL_FRACTION);
+        write(INDEFINITE_ARRAY);
+        writeInteger(BigInteger.valueOf(-(long) decimal.scale()));
+        writeInteger(decimal.unscaledValue());
+        write(BREAK);
+        return this;
+    }
+
+    private JsonWriter value(BigInteger value) throws IOException {
+        writeDeferredName();
+        writeInteger(value);
+        return this;
+    }
+
+    private void writeInteger(BigInteger value) throws IOException {
+        if (value.compareTo(MIN_LONG) >= 0 && value.compareTo(MAX_LONG) <= 0) {
+            long longValue = value.longValue();
+            if (longValue >= 0) {
+                writeHeader(MAJOR_UNSIGNED, longValue);
+            } else {
+                writeHeader(MAJOR_NEGATIVE, -1 - longValue);
+            }
+            return;
+        }
+
+        boolean negative = value.signum() < 0;
+        byte[] magnitude = (negative ? value.negate().subtract(BigInteger.ONE) : value).toByteArray();
+        int offset = magnitude[0] == 0 ? 1 : 0;
+
+        writeHeader(MAJOR_TAG, negative ? TAG_NEGATIVE_BIGNUM : TAG_POSITIVE_BIGNUM);
+        writeHeader(MAJOR_BYTES, magnitude.length - offset);
+        write(magnitude, offset, magnitude.length - offset);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushBuffer();
+        outputStream.close();
+    }
+
+    private void checkFloatingPoint(double value) {
+        if (!isLenient() && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+        }
+    }
+
+    private void writeDeferredName() throws IOException {
+        if (deferredName != null) {
+            String name = deferredName;
+            deferredName = null;
+            writeText(name);
+        }
+    }
+
+    private void writeText(String value) throws IOException {
+        // Names and values are mostly ASCII, which can be copied without an encoder
+        int length = value.length();
+        boolean ascii = true;
+        for (int i = 0; i < length && ascii; i++) {
+            ascii = value.charAt(i) < 0x80;
+        }
+
+        if (ascii) {
+            writeHeader(MAJOR_TEXT, length);
+            if (length > buffer.length) {
+                byte[] bytes = value.getBytes(StandardCharsets.ISO_8859_1);
+                write(bytes, 0, bytes.length);
+                return;
+            }
+
+            ensureCapacity(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeHeader(MAJOR_TEXT, bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    private void writeHeader(int majorType, long argument) throws IOException {
+        ensureCapacity(9);
+        if (argument < 24) {
+            buffer[position++] = (byte) (majorType | argument);
+        } else if (argument < 0x100) {
+            buffer[position++] = (byte) (majorType | 24);
+            buffer[position++] = (byte) argument;
+        } else if (argument < 0x10000) {
+            buffer[position++] = (byte) (majorType | 25);
+            buffer[position++] = (byte) (argument >> 8);
+            buffer[position++] = (byte) argument;
+        } else if (argument < 0x100000000L) {
+            buffer[position++] = (byte) (majorType | 26);
+            writeInt((int) argument);
+        } else {
+            buffer[position++] = (byte) (majorType | 27);
+            writeLong(argument);
+        }
+    }
+
+    private void writeInt(int value) {
+        buffer[position++] = (byte) (value >> 24);
+        buffer[position++] = (byte) (value >> 16);
+        buffer[position++] = (byte) (value >> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >> 32));
+        writeInt((int) value);
+    }
+
+    private void write(int value) throws IOException {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            flushBuffer();
+            if (length > buffer.length) {
+                outputStream.write(bytes, offset, length);
+                return;
+            }
+        }
+
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    private void ensureCapacity(int length) throws IOException {
+        if (buffer.length - position < length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            outputStream.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.schematik.api.codec;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Encodes response bodies and decodes request bodies of one media type. Codecs plug into Gson's streaming API, so
+ * every type Gson can serialize, including the generated type adapters, works with every codec.
+ * <p>
+ * Codecs other than the built-in ones are registered with {@link MediaCodecs#register(IMediaCodec)} or listed in
+ * {@code META-INF/services/org.schematik.api.codec.IMediaCodec}.
+ */
+public interface IMediaCodec {
+    /**
+     * Returns the media type of the encoded bodies, e.g. {@code application/cbor}.
+     */
+    String getMediaType();
+
+    JsonWriter newWriter(OutputStream outputStream) throws IOException;
+
+    JsonReader newReader(InputStream inputStream) throws IOException;
+}
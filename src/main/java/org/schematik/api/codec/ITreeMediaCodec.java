@@ -0,0 +1,29 @@
+package org.schematik.api.codec;
+
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+
+/**
+ * A codec whose request bodies are decoded into a Gson tree before they are bound, because Gson can't read them as a
+ * stream: its map adapter only reads map keys from json text or from a tree. Request bodies are bound from the tree
+ * with {@code Gson.fromJson(JsonElement, Type)}, so they are held in memory as a whole, even for streamed
+ * {@code @RequestBody} parameters. Their size is therefore always limited by {@code http.maxRequestSize}.
+ */
+public interface ITreeMediaCodec extends IMediaCodec {
+    /**
+     * Decodes a whole body, or returns {@link com.google.gson.JsonNull} if it is empty.
+     */
+    JsonElement decode(InputStream inputStream) throws IOException;
+
+    /**
+     * Reads the decoded body as json text. Request binding uses {@link #decode(InputStream)} instead.
+     */
+    @Override
+    default JsonReader newReader(InputStream inputStream) throws IOException {
+        return new JsonReader(new StringReader(decode(inputStream).toString()));
+    }
+}
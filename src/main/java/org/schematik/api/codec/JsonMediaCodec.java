@@ -0,0 +1,32 @@
+package org.schematik.api.codec;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import io.javalin.http.ContentType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+public class JsonMediaCodec implements IMediaCodec {
+    public static final JsonMediaCodec INSTANCE = new JsonMediaCodec();
+
+    @Override
+    public String getMediaType() {
+        return ContentType.JSON;
+    }
+
+    @Override
+    public JsonWriter newWriter(OutputStream outputStream) {
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public JsonReader newReader(InputStream inputStream) {
+        return new JsonReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+    }
+}
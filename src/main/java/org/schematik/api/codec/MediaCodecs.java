@@ -0,0 +1,154 @@
+package org.schematik.api.codec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The registered {@link IMediaCodec}s and the content negotiation between them. Json is the default: it is used when
+ * a request has no {@code Accept} or {@code Content-Type} header, when the {@code Accept} header names no registered
+ * media type, and for request bodies of json-like media types.
+ */
+public class MediaCodecs {
+    static Logger logger = LoggerFactory.getLogger(MediaCodecs.class);
+
+    private static final Set<String> delimitedJsonTypes = Set.of(
+            "application/x-ndjson",
+            "application/ndjson",
+            "application/jsonl"
+    );
+
+    private static final List<IMediaCodec> codecs = new CopyOnWriteArrayList<>();
+
+    static {
+        codecs.add(JsonMediaCodec.INSTANCE);
+        codecs.add(CborMediaCodec.INSTANCE);
+
+        for (IMediaCodec codec : ServiceLoader.load(IMediaCodec.class, MediaCodecs.class.getClassLoader())) {
+            register(codec);
+        }
+    }
+
+    /**
+     * Registers a codec. A codec registered for a media type that already has one replaces it.
+     */
+    public static void register(IMediaCodec codec) {
+        String mediaType = normalize(codec.getMediaType());
+        codecs.removeIf(registeredCodec -> normalize(registeredCodec.getMediaType()).equals(mediaType));
+        codecs.add(codec);
+
+        logger.debug(String.format("Registered media codec %s for %s", codec.getClass().getName(), mediaType));
+    }
+
+    public static List<IMediaCodec> getCodecs() {
+        return new ArrayList<>(codecs);
+    }
+
+    /**
+     * Returns the codec for a request body with the given {@code Content-Type}, or {@code null} if no codec is
+     * registered for it. Bodies without a content type, and bodies of json, {@code +json}, newline delimited json and
+     * {@code text/plain} content types, are read as json.
+     */
+    public static IMediaCodec forContentType(String contentType) {
+        if (contentType == null) {
+            return JsonMediaCodec.INSTANCE;
+        }
+
+        String mediaType = normalize(contentType);
+        IMediaCodec codec = find(mediaType);
+        if (codec != null) {
+            return codec;
+        }
+
+        return isJson(mediaType) ? JsonMediaCodec.INSTANCE : null;
+    }
+
+    /**
+     * Returns {@code true} if the content type is newline delimited json, which holds one json value per line.
+     */
+    public static boolean isDelimitedJson(String contentType) {
+        return contentType != null && delimitedJsonTypes.contains(normalize(contentType));
+    }
+
+    private static boolean isJson(String mediaType) {
+        return mediaType.isEmpty()
+                || mediaType.equals("application/json")
+                || mediaType.equals("text/json")
+                || mediaType.equals("text/plain")
+                || mediaType.endsWith("+json")
+                || delimitedJsonTypes.contains(mediaType);
+    }
+
+    /**
+     * Returns the codec for the response to a request with the given {@code Accept} header: the registered media type
+     * the client prefers, by quality and then by order. Wildcards match json first.
+     */
+    public static IMediaCodec forAccept(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return JsonMediaCodec.INSTANCE;
+        }
+
+        IMediaCodec bestCodec = null;
+        double bestQuality = 0;
+        for (String mediaRange : accept.split(",")) {
+            String[] parts = mediaRange.split(";");
+            double quality = qualityOf(parts);
+            if (quality <= bestQuality) {
+                continue;
+            }
+
+            IMediaCodec codec = find(parts[0].trim().toLowerCase(Locale.ROOT));
+            if (codec != null) {
+                bestCodec = codec;
+                bestQuality = quality;
+            }
+        }
+
+        return bestCodec != null ? bestCodec : JsonMediaCodec.INSTANCE;
+    }
+
+    private static IMediaCodec find(String mediaRange) {
+        if (mediaRange.equals("*/*") || mediaRange.equals("*")) {
+            return JsonMediaCodec.INSTANCE;
+        }
+
+        boolean anySubtype = mediaRange.endsWith("/*");
+        String type = anySubtype ? mediaRange.substring(0, mediaRange.length() - 1) : mediaRange;
+        for (IMediaCodec codec : codecs) {
+            String mediaType = normalize(codec.getMediaType());
+            if (anySubtype ? mediaType.startsWith(type) : mediaType.equals(type)) {
+                return codec;
+            }
+        }
+
+        return null;
+    }
+
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+
+        return 1;
+    }
+
+    private static String normalize(String contentType) {
+        int parametersStart = contentType.indexOf(';');
+        String mediaType = parametersStart >= 0 ? contentType.substring(0, parametersStart) : contentType;
+
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+}
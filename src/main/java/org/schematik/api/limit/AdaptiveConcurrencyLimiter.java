@@ -0,0 +1,156 @@
+package org.schematik.api.limit;
+
+import org.schematik.Application;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Limits the number of requests a route handles at the same time, adjusting the limit to the latency of the route.
+ * Two moving averages of the latency are kept: a short-term one that follows the current latency, and a long-term one
+ * that stands for the latency without load. While the short-term latency stays within {@code tolerance} times the
+ * long-term latency, the limit grows with the square root of itself; once it rises above that, the limit shrinks in
+ * proportion to the ratio of the two. Every sample moves the limit only by the {@code smoothing} fraction of that
+ * change. Requests over the limit are rejected right away instead of queueing behind the slow ones.
+ * <p>
+ * The limit only grows while at least half of it is in use, so a route that is rarely busy doesn't accumulate a limit
+ * it has never been tested with. All state is updated lock-free.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double SHORT_TERM_SMOOTHING = 2.0 / (10 + 1);
+    private static final double LONG_TERM_SMOOTHING = 2.0 / (600 + 1);
+
+    private final String route;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limit;
+    private final AtomicLong shortTermLatency = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+    private final AtomicLong longTermLatency = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveConcurrencyLimiter(
+            String route,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double tolerance,
+            double smoothing
+    ) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid concurrency limits for %s: initial %d, min %d, max %d",
+                    route,
+                    initialLimit,
+                    minLimit,
+                    maxLimit
+            ));
+        }
+
+        this.route = route;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(initialLimit));
+    }
+
+    /**
+     * Creates a limiter configured by the {@code api.concurrencyLimit.*} properties.
+     */
+    public static AdaptiveConcurrencyLimiter fromProperties(String route) {
+        return new AdaptiveConcurrencyLimiter(
+                route,
+                Integer.parseInt(Application.getPropertyOrDefault("api.concurrencyLimit.initialLimit", "20")),
+                Integer.parseInt(Application.getPropertyOrDefault("api.concurrencyLimit.minLimit", "4")),
+                Integer.parseInt(Application.getPropertyOrDefault("api.concurrencyLimit.maxLimit", "200")),
+                Double.parseDouble(Application.getPropertyOrDefault("api.concurrencyLimit.tolerance", "1.5")),
+                Double.parseDouble(Application.getPropertyOrDefault("api.concurrencyLimit.smoothing", "0.2"))
+        );
+    }
+
+    /**
+     * Admits a request if the route is below its limit. Every admitted request must be released with
+     * {@link #release(long)} or {@link #release()} once it has been handled.
+     */
+    public boolean tryAcquire() {
+        int currentLimit = getLimit();
+
+        while (true) {
+            int current = inFlight.get();
+            if (current >= currentLimit) {
+                rejected.increment();
+                return false;
+            }
+
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request without adjusting the limit, for requests that were answered before reaching the
+     * endpoint, such as rejected or cached ones. Their latency says nothing about the load of the endpoint.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Releases an admitted request and adjusts the limit to the time it took.
+     */
+    public void release(long latencyNanos) {
+        int released = inFlight.getAndDecrement();
+
+        double latency = latencyNanos;
+        double shortTerm = updateDouble(shortTermLatency, average -> Double.isNaN(average)
+                ? latency
+                : average + SHORT_TERM_SMOOTHING * (latency - average));
+        double longTerm = updateDouble(longTermLatency, average -> Double.isNaN(average)
+                ? latency
+                : average + LONG_TERM_SMOOTHING * (latency - average));
+
+        double gradient = shortTerm > 0 ? Math.max(0.5, Math.min(1.0, tolerance * longTerm / shortTerm)) : 1.0;
+
+        updateDouble(limit, currentLimit -> {
+            // Don't grow a limit that isn't being used
+            if (gradient >= 1.0 && released < currentLimit / 2) {
+                return currentLimit;
+            }
+
+            double newLimit = currentLimit * gradient + Math.sqrt(currentLimit);
+            newLimit = currentLimit * (1 - smoothing) + newLimit * smoothing;
+
+            return Math.max(minLimit, Math.min(maxLimit, newLimit));
+        });
+    }
+
+    private static double updateDouble(AtomicLong bits, DoubleUnaryOperator update) {
+        return Double.longBitsToDouble(bits.updateAndGet(
+                current -> Double.doubleToRawLongBits(update.applyAsDouble(Double.longBitsToDouble(current)))
+        ));
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,40 @@
+package org.schematik.api.limit;
+
+import org.schematik.metrics.IMetricsSource;
+import org.schematik.metrics.IMetricsWriter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Exposes the current limit and the rejected requests of every {@link AdaptiveConcurrencyLimiter}.
+ */
+public class ConcurrencyLimitMetrics implements IMetricsSource {
+    private final List<AdaptiveConcurrencyLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    public void add(AdaptiveConcurrencyLimiter limiter) {
+        limiters.add(limiter);
+    }
+
+    @Override
+    public void collect(IMetricsWriter writer) throws IOException {
+        for (AdaptiveConcurrencyLimiter limiter : limiters) {
+            writer.gauge(
+                    "schematik_http_concurrency_limit",
+                    "Current adaptive concurrency limit of the route.",
+                    limiter.getLimit(),
+                    "route", limiter.getRoute()
+            );
+        }
+
+        for (AdaptiveConcurrencyLimiter limiter : limiters) {
+            writer.counter(
+                    "schematik_http_concurrency_rejected_total",
+                    "Requests to the route rejected because it was at its concurrency limit.",
+                    limiter.getRejected(),
+                    "route", limiter.getRoute()
+            );
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.schematik.api.limit;
+
+import org.apache.commons.io.IOUtils;
+import org.schematik.Application;
+import org.schematik.api.annotation.RateLimitKey;
+import org.schematik.api.annotation.RateLimited;
+import org.schematik.util.resource.FileResourceUtil;
+import org.schematik.util.xml.XMLParser;
+import org.schematik.util.xml.XmlElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Creates the rate limiters of the routes. The limit of a route is set by the {@code <rate-limit>} elements of the
+ * file named by the {@code api.rateLimit.config} property ({@code ratelimit.config.xml} by default), or else by the
+ * {@link RateLimited} annotation of its method.
+ */
+public class RateLimitConfig {
+    static Logger logger = LoggerFactory.getLogger(RateLimitConfig.class);
+
+    private record RateLimitSettings(double permitsPerSecond, int burst, RateLimitKey key) {
+    }
+
+    private final Map<String, RateLimitSettings> configuredLimits = new HashMap<>();
+    private final String apiKeyHeader;
+    private final int maxClients;
+    private final long evictionIntervalMillis;
+
+    private RateLimitConfig() {
+        apiKeyHeader = Application.getPropertyOrDefault("api.rateLimit.apiKeyHeader", "X-API-Key");
+        maxClients = Integer.parseInt(Application.getPropertyOrDefault("api.rateLimit.maxClients", "100000"));
+        evictionIntervalMillis = Long.parseLong(
+                Application.getPropertyOrDefault("api.rateLimit.evictionIntervalMillis", "10000")
+        );
+    }
+
+    /**
+     * Reads the configured rate limits. A missing configuration file means that only annotated routes are limited.
+     */
+    public static RateLimitConfig load() throws Exception {
+        RateLimitConfig config = new RateLimitConfig();
+
+        String fileName = Application.getPropertyOrDefault("api.rateLimit.config", "ratelimit.config.xml");
+        if (RateLimitConfig.class.getClassLoader().getResource(fileName) == null) {
+            logger.debug(String.format("No %s found, only @RateLimited endpoints are rate limited", fileName));
+            return config;
+        }
+
+        String rateLimitConfigContent = IOUtils.toString(
+                FileResourceUtil.getFileFromResourceAsStream(fileName),
+                StandardCharsets.UTF_8
+        );
+        XmlElement xml = XMLParser.parse(rateLimitConfigContent);
+
+        for (XmlElement rateLimit : xml.getElements("rate-limit")) {
+            String route = rateLimit.getProperty("method").toUpperCase(Locale.ROOT)
+                    + " " + rateLimit.getProperty("endpoint");
+            RateLimitKey key = rateLimit.hasProperty("key")
+                    ? RateLimitKey.valueOf(rateLimit.getProperty("key").toUpperCase(Locale.ROOT))
+                    : RateLimitKey.PRINCIPAL;
+
+            config.configuredLimits.put(route, new RateLimitSettings(
+                    Double.parseDouble(rateLimit.getProperty("permitsPerSecond")),
+                    rateLimit.hasProperty("burst") ? Integer.parseInt(rateLimit.getProperty("burst")) : 1,
+                    key
+            ));
+        }
+
+        return config;
+    }
+
+    /**
+     * Creates the rate limiter of a route, or returns {@code null} if the route is not rate limited.
+     */
+    public RateLimiter forRoute(String httpMethod, String endpoint, RateLimited annotation) {
+        String route = httpMethod + " " + endpoint;
+
+        RateLimitSettings settings = configuredLimits.remove(route);
+        if (settings == null && annotation != null) {
+            settings = new RateLimitSettings(annotation.permitsPerSecond(), annotation.burst(), annotation.key());
+        }
+        if (settings == null) {
+            return null;
+        }
+
+        logger.info(String.format(
+                "Rate limiting %s to %s requests per second (burst %d) per %s",
+                route,
+                settings.permitsPerSecond(),
+                settings.burst(),
+                settings.key().name().toLowerCase(Locale.ROOT)
+        ));
+
+        return new RateLimiter(
+                route,
+                settings.permitsPerSecond(),
+                settings.burst(),
+                settings.key(),
+                apiKeyHeader,
+                maxClients,
+                evictionIntervalMillis
+        );
+    }
+
+    /**
+     * Warns about configured rate limits that no route has used.
+     */
+    public void logUnmatchedLimits() {
+        configuredLimits.keySet().forEach(route -> logger.warn(String.format(
+                "A rate limit is configured for %s, but no such endpoint exists. Ignoring...",
+                route
+        )));
+    }
+}
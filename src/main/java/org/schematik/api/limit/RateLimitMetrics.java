@@ -0,0 +1,40 @@
+package org.schematik.api.limit;
+
+import org.schematik.metrics.IMetricsSource;
+import org.schematik.metrics.IMetricsWriter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Exposes the tracked clients and the rejected requests of every {@link RateLimiter}.
+ */
+public class RateLimitMetrics implements IMetricsSource {
+    private final List<RateLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    public void add(RateLimiter limiter) {
+        limiters.add(limiter);
+    }
+
+    @Override
+    public void collect(IMetricsWriter writer) throws IOException {
+        for (RateLimiter limiter : limiters) {
+            writer.gauge(
+                    "schematik_http_rate_limit_clients",
+                    "Clients with a rate limit bucket for the route.",
+                    limiter.getClients(),
+                    "route", limiter.getRoute()
+            );
+        }
+
+        for (RateLimiter limiter : limiters) {
+            writer.counter(
+                    "schematik_http_rate_limited_total",
+                    "Requests to the route rejected because their client was over its rate limit.",
+                    limiter.getRejected(),
+                    "route", limiter.getRoute()
+            );
+        }
+    }
+}
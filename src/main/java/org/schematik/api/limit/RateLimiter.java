@@ -0,0 +1,183 @@
+package org.schematik.api.limit;
+
+import io.javalin.http.Context;
+import org.schematik.api.annotation.RateLimitKey;
+import org.schematik.api.security.AuthenticatedPrincipal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate of requests every client sends to a route, so that one client can't use up the capacity of the
+ * route for the others. Every client has its own bucket, implemented with the generic cell rate algorithm: a bucket is
+ * a single timestamp, the theoretical arrival time of the client's next request, which is moved forward by one
+ * emission interval for every admitted request with a compare-and-set. A request is rejected when it would move the
+ * timestamp more than {@code burst} intervals past the present.
+ * <p>
+ * A bucket whose timestamp is in the past is full, and the same as a bucket that doesn't exist, so idle buckets are
+ * dropped from time to time without changing any limit. Once {@code maxClients} buckets exist, further clients share
+ * a fixed number of overflow buckets by the hash of their key, so memory stays bounded no matter how many clients
+ * there are.
+ */
+public class RateLimiter {
+    private static final int OVERFLOW_BUCKETS = 1024;
+
+    private final String route;
+    private final RateLimitKey key;
+    private final String apiKeyHeader;
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final long evictionIntervalNanos;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong[] overflowBuckets = new AtomicLong[OVERFLOW_BUCKETS];
+    private final AtomicLong nextEvictionAt;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimiter(
+            String route,
+            double permitsPerSecond,
+            int burst,
+            RateLimitKey key,
+            String apiKeyHeader,
+            int maxClients,
+            long evictionIntervalMillis
+    ) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid rate limit for %s: %s permits per second, burst %d, at most %d clients",
+                    route,
+                    permitsPerSecond,
+                    burst,
+                    maxClients
+            ));
+        }
+
+        this.route = route;
+        this.key = key;
+        this.apiKeyHeader = apiKeyHeader;
+        this.emissionIntervalNanos = Math.max(1, Math.round(1_000_000_000 / permitsPerSecond));
+        this.burstNanos = emissionIntervalNanos * burst;
+        this.maxClients = maxClients;
+        this.evictionIntervalNanos = evictionIntervalMillis * 1_000_000;
+
+        long now = System.nanoTime();
+        this.nextEvictionAt = new AtomicLong(now + evictionIntervalNanos);
+        for (int i = 0; i < OVERFLOW_BUCKETS; i++) {
+            overflowBuckets[i] = new AtomicLong(now);
+        }
+    }
+
+    /**
+     * Returns the key that the requests of a client are counted by. Keys of different kinds never collide. The API key
+     * is only used once the request is authenticated, since a client could otherwise get a new bucket for every value
+     * it makes up. Principals without a name, such as those of plugins that only implement
+     * {@code authenticate(Context)}, are counted by their address, so they don't all share one bucket. Principal names
+     * and API keys are stored as a fixed-size digest, so long values don't take more
+     * memory.
+     */
+    public String clientKey(Context context, AuthenticatedPrincipal principal) {
+        if (key == RateLimitKey.PRINCIPAL && principal != null && principal.getName() != null) {
+            return "principal:" + digest(principal.getName());
+        }
+
+        if (key == RateLimitKey.API_KEY && principal != null) {
+            String apiKey = context.header(apiKeyHeader);
+            if (apiKey != null && !apiKey.isBlank()) {
+                return "apiKey:" + digest(apiKey);
+            }
+        }
+
+        return "address:" + context.ip();
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+
+            // 128 bits are plenty to tell clients apart
+            return Base64.getEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Admits a request of a client if its bucket has a permit left. Returns {@code 0} if the request is admitted,
+     * otherwise the number of nanoseconds until the client's next permit.
+     */
+    public long tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        evictIdleBuckets(now);
+
+        AtomicLong bucket = bucketOf(clientKey, now);
+        while (true) {
+            long theoreticalArrival = bucket.get();
+            long nextArrival = (theoreticalArrival - now > 0 ? theoreticalArrival : now) + emissionIntervalNanos;
+
+            long waitNanos = nextArrival - burstNanos - now;
+            if (waitNanos > 0) {
+                rejected.increment();
+                return waitNanos;
+            }
+
+            if (bucket.compareAndSet(theoreticalArrival, nextArrival)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Rounds a wait up to whole seconds, the unit of the {@code Retry-After} header.
+     */
+    public static String retryAfterSeconds(long waitNanos) {
+        return String.valueOf(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+    }
+
+    private AtomicLong bucketOf(String clientKey, long now) {
+        AtomicLong bucket = buckets.get(clientKey);
+        if (bucket != null) {
+            return bucket;
+        }
+
+        if (buckets.size() >= maxClients) {
+            return overflowBuckets[(clientKey.hashCode() & 0x7fffffff) % OVERFLOW_BUCKETS];
+        }
+
+        return buckets.computeIfAbsent(clientKey, ignored -> new AtomicLong(now));
+    }
+
+    /**
+     * Drops the full buckets, at most once per eviction interval. A request that races with the eviction of its bucket
+     * can be counted in the dropped bucket, which lets its client through once more than the limit allows.
+     */
+    private void evictIdleBuckets(long now) {
+        long evictionAt = nextEvictionAt.get();
+        if (now - evictionAt < 0 || !nextEvictionAt.compareAndSet(evictionAt, now + evictionIntervalNanos)) {
+            return;
+        }
+
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public int getClients() {
+        return buckets.size();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,21 @@
+package org.schematik.api.metrics;
+
+/**
+ * The phases of handling a request to a controller endpoint, timed separately by {@link RouteMetrics}.
+ */
+public enum RequestPhase {
+    AUTHENTICATION("authentication"),
+    BINDING("binding"),
+    INVOCATION("invocation"),
+    SERIALIZATION("serialization");
+
+    private final String label;
+
+    RequestPhase(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
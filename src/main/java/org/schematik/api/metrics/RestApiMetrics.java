@@ -0,0 +1,67 @@
+package org.schematik.api.metrics;
+
+import org.schematik.metrics.IMetricsSource;
+import org.schematik.metrics.IMetricsWriter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Exposes the {@link RouteMetrics} of all registered routes.
+ */
+public class RestApiMetrics implements IMetricsSource {
+    private final List<RouteMetrics> routes = new CopyOnWriteArrayList<>();
+
+    public void add(RouteMetrics routeMetrics) {
+        routes.add(routeMetrics);
+    }
+
+    @Override
+    public void collect(IMetricsWriter writer) throws IOException {
+        for (RouteMetrics route : routes) {
+            writer.counter(
+                    "schematik_http_requests_total",
+                    "Requests received by the route.",
+                    route.getRequests(),
+                    "route", route.getRoute()
+            );
+        }
+
+        for (RouteMetrics route : routes) {
+            writer.counter(
+                    "schematik_http_errors_total",
+                    "Requests to the route that failed with an exception.",
+                    route.getErrors(),
+                    "route", route.getRoute()
+            );
+        }
+
+        for (RouteMetrics route : routes) {
+            writer.gauge(
+                    "schematik_http_requests_in_flight",
+                    "Requests to the route that are currently being handled.",
+                    route.getInFlight(),
+                    "route", route.getRoute()
+            );
+        }
+
+        for (RouteMetrics route : routes) {
+            writer.summary(
+                    "schematik_http_request_duration_seconds",
+                    "Time spent handling requests to the route, in total and per phase.",
+                    route.getLatency(),
+                    "route", route.getRoute(), "phase", "total"
+            );
+
+            for (RequestPhase phase : RequestPhase.values()) {
+                writer.summary(
+                        "schematik_http_request_duration_seconds",
+                        "Time spent handling requests to the route, in total and per phase.",
+                        route.getPhaseLatency(phase),
+                        "route", route.getRoute(), "phase", phase.getLabel()
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.schematik.api.metrics;
+
+import org.schematik.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and latency histograms of a single route. All updates are lock-free.
+ */
+public class RouteMetrics {
+    private final String route;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram[] phaseLatencies = new LatencyHistogram[RequestPhase.values().length];
+
+    public RouteMetrics(String route) {
+        this.route = route;
+
+        for (int i = 0; i < phaseLatencies.length; i++) {
+            phaseLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Marks the start of a request and returns its start time, to be passed to {@link #requestFinished(long)}.
+     */
+    public long requestStarted() {
+        requests.increment();
+        inFlight.incrementAndGet();
+
+        return System.nanoTime();
+    }
+
+    public void requestFinished(long startedAt) {
+        inFlight.decrementAndGet();
+        latency.record(System.nanoTime() - startedAt);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Records the time since {@code phaseStartedAt} for the phase and returns the current time, which is when the
+     * next phase starts.
+     */
+    public long recordPhase(RequestPhase phase, long phaseStartedAt) {
+        long now = System.nanoTime();
+        phaseLatencies[phase.ordinal()].record(now - phaseStartedAt);
+
+        return now;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    public LatencyHistogram getPhaseLatency(RequestPhase phase) {
+        return phaseLatencies[phase.ordinal()];
+    }
+}
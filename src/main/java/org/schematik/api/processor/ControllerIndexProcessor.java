@@ -0,0 +1,199 @@
+package org.schematik.api.processor;
+
+import org.schematik.api.ControllerIndex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes the {@link ControllerIndex} of the compiled {@code @Controller} classes and their request methods, so that
+ * the controllers don't have to be found by scanning the classpath at startup.
+ * <p>
+ * The processor is registered as a service and runs when schematik-core is on the compiler's annotation processor path
+ * (or on the classpath, if implicit annotation processing is enabled). An incremental compilation only passes the
+ * recompiled classes to the processor, so the controllers of the previous index that still exist are kept.
+ */
+@SupportedAnnotationTypes("org.schematik.api.annotation.Controller")
+public class ControllerIndexProcessor extends AbstractProcessor {
+    private static final Set<String> requestTypeAnnotations = Set.of(
+            "org.schematik.api.annotation.request.Get",
+            "org.schematik.api.annotation.request.Post",
+            "org.schematik.api.annotation.request.Put",
+            "org.schematik.api.annotation.request.Delete",
+            "org.schematik.api.annotation.request.Patch",
+            "org.schematik.api.annotation.request.Head",
+            "org.schematik.api.annotation.request.Options"
+    );
+
+    private final Map<String, List<String>> controllers = new LinkedHashMap<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    indexController((TypeElement) element);
+                }
+            }
+        }
+
+        if (roundEnvironment.processingOver() && !controllers.isEmpty()) {
+            writeIndex();
+        }
+
+        return false;
+    }
+
+    private void indexController(TypeElement controller) {
+        List<String> methods = new ArrayList<>();
+        for (Element member : controller.getEnclosedElements()) {
+            if (member.getKind() == ElementKind.METHOD && isRequestMethod(member)) {
+                methods.add(signatureOf((ExecutableElement) member));
+            }
+        }
+
+        controllers.put(processingEnv.getElementUtils().getBinaryName(controller).toString(), methods);
+    }
+
+    private boolean isRequestMethod(Element method) {
+        for (AnnotationMirror annotation : method.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (requestTypeAnnotations.contains(annotationType.getQualifiedName().toString())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the method's signature in the form of {@code ControllerIndex.signatureOf(Method)}, i.e. with the names
+     * {@link Class#getTypeName()} gives to the erased parameter types.
+     */
+    private String signatureOf(ExecutableElement method) {
+        StringBuilder signature = new StringBuilder(method.getSimpleName()).append('(');
+        List<? extends VariableElement> parameters = method.getParameters();
+        for (int i = 0; i < parameters.size(); i++) {
+            if (i > 0) {
+                signature.append(',');
+            }
+            signature.append(typeNameOf(processingEnv.getTypeUtils().erasure(parameters.get(i).asType())));
+        }
+
+        return signature.append(')').toString();
+    }
+
+    private String typeNameOf(TypeMirror type) {
+        if (type instanceof ArrayType arrayType) {
+            return typeNameOf(arrayType.getComponentType()) + "[]";
+        }
+        if (type instanceof DeclaredType declaredType) {
+            return processingEnv.getElementUtils().getBinaryName((TypeElement) declaredType.asElement()).toString();
+        }
+
+        return type.toString();
+    }
+
+    /**
+     * Reads the index written by the previous compilation, leaving out the controllers compiled in this one and the
+     * classes that no longer exist or are no longer controllers.
+     */
+    private Map<String, List<String>> readPreviousIndex() {
+        Map<String, Set<String>> previous = new LinkedHashMap<>();
+        try {
+            FileObject indexFile = processingEnv.getFiler().getResource(
+                    StandardLocation.CLASS_OUTPUT,
+                    "",
+                    ControllerIndex.INDEX_LOCATION
+            );
+            try (BufferedReader reader = new BufferedReader(indexFile.openReader(true))) {
+                ControllerIndex.read(reader, previous);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // There is no previous index
+            return new LinkedHashMap<>();
+        }
+
+        Map<String, List<String>> kept = new LinkedHashMap<>();
+        previous.forEach((className, methods) -> {
+            if (controllers.containsKey(className)) {
+                return;
+            }
+
+            TypeElement controller = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+            if (controller != null && isController(controller)) {
+                kept.put(className, new ArrayList<>(methods));
+            }
+        });
+
+        return kept;
+    }
+
+    private static boolean isController(TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals("org.schematik.api.annotation.Controller")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void writeIndex() {
+        Map<String, List<String>> index = readPreviousIndex();
+        index.putAll(controllers);
+
+        try {
+            FileObject indexFile = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT,
+                    "",
+                    ControllerIndex.INDEX_LOCATION
+            );
+
+            try (Writer writer = indexFile.openWriter()) {
+                for (Map.Entry<String, List<String>> controller : index.entrySet()) {
+                    writer.write(controller.getKey());
+                    writer.write('\n');
+                    for (String method : controller.getValue()) {
+                        writer.write('\t');
+                        writer.write(method);
+                        writer.write('\n');
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Unable to write the controller index: " + e.getMessage()
+            );
+        }
+    }
+}
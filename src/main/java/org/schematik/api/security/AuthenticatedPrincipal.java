@@ -0,0 +1,76 @@
+package org.schematik.api.security;
+
+import io.javalin.security.RouteRole;
+
+import java.util.Set;
+
+/**
+ * The caller of a request, as identified by the registered {@code WebserviceAuthentication} plugin. The role mask is
+ * computed on the first authorization and only recomputed if routes registered since then added roles, so authorizing
+ * a request is a single AND against the role mask of the route.
+ */
+public class AuthenticatedPrincipal {
+    public static final String CONTEXT_ATTRIBUTE = "schematik.principal";
+
+    private record RoleMask(int version, long mask) {
+    }
+
+    private final String name;
+    private final Set<RouteRole> roles;
+    private final boolean allRoles;
+    private volatile RoleMask roleMask = new RoleMask(-1, 0);
+
+    public AuthenticatedPrincipal(String name, Set<? extends RouteRole> roles) {
+        this(name, roles, false);
+    }
+
+    private AuthenticatedPrincipal(String name, Set<? extends RouteRole> roles, boolean allRoles) {
+        this.name = name;
+        this.roles = Set.copyOf(roles);
+        this.allRoles = allRoles;
+    }
+
+    /**
+     * Returns a principal that has access to every route, whatever roles the route declares. This is how callers
+     * authenticated by a plugin that only implements {@code authenticate(Context)} are authorized, as before roles
+     * were checked.
+     */
+    public static AuthenticatedPrincipal withAllRoles(String name) {
+        return new AuthenticatedPrincipal(name, Set.of(), true);
+    }
+
+    /**
+     * Checks the principal against the role mask of a route. A route without roles accepts every principal, otherwise
+     * the principal needs at least one of the roles of the route.
+     */
+    public boolean hasAnyRole(long requiredRoleMask) {
+        return requiredRoleMask == 0 || allRoles || (getRoleMask() & requiredRoleMask) != 0;
+    }
+
+    /**
+     * Tells whether the principal was returned by {@link #withAllRoles(String)}, so its roles are not known.
+     */
+    public boolean hasAllRoles() {
+        return allRoles;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<RouteRole> getRoles() {
+        return roles;
+    }
+
+    public long getRoleMask() {
+        RoleMask current = roleMask;
+        int version = RouteRoleMask.version();
+        if (current.version() != version) {
+            // The version and the mask are replaced together, so a stale mask is never taken for a current one
+            current = new RoleMask(version, RouteRoleMask.of(roles));
+            roleMask = current;
+        }
+
+        return current.mask();
+    }
+}
@@ -0,0 +1,55 @@
+package org.schematik.api.security;
+
+import io.javalin.security.RouteRole;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns every {@link RouteRole} used by a registered route its own bit, so the roles of a route and of a principal
+ * can be compared with a single AND. Bits are assigned when routes are registered; roles that no route requires have
+ * no bit and are ignored. The version changes whenever a bit is assigned, so masks computed before can be recomputed.
+ */
+public class RouteRoleMask {
+    private static final Map<RouteRole, Long> bits = new ConcurrentHashMap<>();
+
+    private static volatile int version;
+
+    public static synchronized long register(RouteRole... roles) {
+        long mask = 0;
+        for (RouteRole role : roles) {
+            Long bit = bits.get(role);
+            if (bit == null) {
+                if (bits.size() == Long.SIZE) {
+                    throw new IllegalStateException(String.format(
+                            "Cannot register role %s: at most %d distinct roles are supported.",
+                            role,
+                            Long.SIZE
+                    ));
+                }
+
+                bit = 1L << bits.size();
+                bits.put(role, bit);
+                version++;
+            }
+
+            mask |= bit;
+        }
+
+        return mask;
+    }
+
+    public static int version() {
+        return version;
+    }
+
+    public static long of(Collection<? extends RouteRole> roles) {
+        long mask = 0;
+        for (RouteRole role : roles) {
+            mask |= bits.getOrDefault(role, 0L);
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,182 @@
+package org.schematik.gson;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.google.gson.internal.bind.SerializationDelegatingTypeAdapter;
+import com.google.gson.internal.bind.TypeAdapters;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Support methods for the type adapters generated by {@link org.schematik.gson.processor.TypeAdapterProcessor}. The
+ * generated adapters read and write primitive and {@code String} fields directly, the way Gson's built-in adapters
+ * do, so they are only used with a Gson instance whose configuration matches those adapters.
+ * <p>
+ * Gson doesn't expose its exclusion rules, so the generated adapters can't check them: they are only registered, by
+ * {@link GsonUtils#registerGeneratedTypeAdapters(com.google.gson.GsonBuilder)}, on builders that keep the default ones.
+ */
+public class GeneratedTypeAdapters {
+    /**
+     * Returns whether the generated adapters produce the same json as Gson's reflective adapters would with this Gson
+     * instance: field names used as they are, and the built-in adapters for primitives and strings.
+     */
+    public static boolean supports(Gson gson) {
+        return gson.fieldNamingStrategy() == FieldNamingPolicy.IDENTITY
+                && usesAdapter(gson, String.class, TypeAdapters.STRING)
+                && usesAdapter(gson, int.class, TypeAdapters.INTEGER)
+                && usesAdapter(gson, long.class, TypeAdapters.LONG)
+                && usesAdapter(gson, short.class, TypeAdapters.SHORT)
+                && usesAdapter(gson, byte.class, TypeAdapters.BYTE)
+                && usesAdapter(gson, boolean.class, TypeAdapters.BOOLEAN)
+                && usesAdapter(gson, char.class, TypeAdapters.CHARACTER);
+    }
+
+    /**
+     * Returns whether Gson writes {@code NaN} and infinite values instead of rejecting them.
+     */
+    public static boolean serializesSpecialFloatingPointValues(Gson gson) {
+        return usesAdapter(gson, double.class, TypeAdapters.DOUBLE);
+    }
+
+    private static boolean usesAdapter(Gson gson, Class<?> type, TypeAdapter<?> adapter) {
+        return gson.getAdapter(type) == adapter;
+    }
+
+    /**
+     * Wraps the adapter of a field's declared type, so that values of a more specific runtime type are written the way
+     * Gson writes them, i.e. with the adapter of the runtime type unless that one is reflective.
+     */
+    public static <T> TypeAdapter<T> runtimeTypeAdapter(Gson gson, TypeAdapter<T> declaredTypeAdapter, Class<T> declaredType) {
+        return new TypeAdapter<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void write(JsonWriter out, T value) throws IOException {
+                TypeAdapter<T> adapter = declaredTypeAdapter;
+                if (value != null && value.getClass() != declaredType) {
+                    TypeAdapter<T> runtimeTypeAdapter = (TypeAdapter<T>) gson.getAdapter(value.getClass());
+                    if (!isReflective(runtimeTypeAdapter) || isReflective(declaredTypeAdapter)) {
+                        adapter = runtimeTypeAdapter;
+                    }
+                }
+
+                adapter.write(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                return declaredTypeAdapter.read(in);
+            }
+        };
+    }
+
+    private static boolean isReflective(TypeAdapter<?> adapter) {
+        while (adapter instanceof SerializationDelegatingTypeAdapter<?> delegatingAdapter) {
+            TypeAdapter<?> delegate = delegatingAdapter.getSerializationDelegate();
+            if (delegate == adapter) {
+                break;
+            }
+            adapter = delegate;
+        }
+
+        return adapter instanceof ReflectiveTypeAdapterFactory.Adapter;
+    }
+
+    public static double checkFloatingPoint(double value, boolean serializeSpecialFloatingPointValues) {
+        if (!serializeSpecialFloatingPointValues && (Double.isNaN(value) || Double.isInfinite(value))) {
+            throw new IllegalArgumentException(value
+                    + " is not a valid double value as per JSON specification. To override this behavior,"
+                    + " use GsonBuilder.serializeSpecialFloatingPointValues() method.");
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the exception Gson throws when a record component of a primitive type is {@code null}.
+     */
+    public static JsonParseException nullPrimitiveRecordComponent(JsonReader in, String name) {
+        return new JsonParseException(
+                "null is not allowed as value for record component '" + name + "' of primitive type; at path "
+                        + in.getPath()
+        );
+    }
+
+    public static String readString(JsonReader in) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+
+        return in.nextString();
+    }
+
+    public static boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+
+        return in.nextBoolean();
+    }
+
+    public static int readInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public static long readLong(JsonReader in) throws IOException {
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public static short readShort(JsonReader in) throws IOException {
+        int value = readInt(in);
+        if (value > 65535 || value < Short.MIN_VALUE) {
+            throw new JsonSyntaxException("Lossy conversion from " + value + " to short; at path " + in.getPreviousPath());
+        }
+
+        return (short) value;
+    }
+
+    public static byte readByte(JsonReader in) throws IOException {
+        int value = readInt(in);
+        if (value > 255 || value < Byte.MIN_VALUE) {
+            throw new JsonSyntaxException("Lossy conversion from " + value + " to byte; at path " + in.getPreviousPath());
+        }
+
+        return (byte) value;
+    }
+
+    public static double readDouble(JsonReader in) throws IOException {
+        try {
+            return in.nextDouble();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    public static char readChar(JsonReader in) throws IOException {
+        String value = in.nextString();
+        if (value.length() != 1) {
+            throw new JsonSyntaxException("Expecting character, got: " + value + "; at " + in.getPreviousPath());
+        }
+
+        return value.charAt(0);
+    }
+}
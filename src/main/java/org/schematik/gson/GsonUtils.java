@@ -3,20 +3,62 @@ package org.schematik.gson;
 import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
 
 import java.time.LocalDate;
+import java.util.ServiceLoader;
 
 public class GsonUtils {
-    static Gson gson;
+    private static volatile Gson gson;
 
+    /**
+     * Returns the Gson instance shared by the server, the REST apis and the plugins. Unless another one has been set
+     * with {@link #setDefaultGson(Gson)}, it is created from {@link #newGsonBuilder()}, with the generated type adapters.
+     */
     public static Gson getDefaultGson() {
-        if (gson == null) {
-            GsonBuilder builder = (new GsonBuilder())
-                    .setFieldNamingPolicy(FieldNamingPolicy.IDENTITY)
-                    .registerTypeAdapter(LocalDate.class, new LocalDateAdapter());
-            gson = builder.create();
+        Gson defaultGson = gson;
+        if (defaultGson == null) {
+            synchronized (GsonUtils.class) {
+                defaultGson = gson;
+                if (defaultGson == null) {
+                    defaultGson = registerGeneratedTypeAdapters(newGsonBuilder()).create();
+                    gson = defaultGson;
+                }
+            }
         }
 
-        return gson;
+        return defaultGson;
+    }
+
+    public static synchronized void setDefaultGson(Gson gson) {
+        GsonUtils.gson = gson;
+    }
+
+    /**
+     * Returns a builder with the default configuration. Use it to customize the Gson instance passed to
+     * {@code JettyServer.start(Gson)}.
+     */
+    public static GsonBuilder newGsonBuilder() {
+        return (new GsonBuilder())
+                .setFieldNamingPolicy(FieldNamingPolicy.IDENTITY)
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter());
+    }
+
+    /**
+     * Registers the type adapters generated at compile time for the controllers' request and response classes. They
+     * skip the same fields as Gson's default exclusion rules, so only register them on builders without exclusion
+     * strategies, {@code @Expose} or {@code @Since} rules or other excluded modifiers.
+     */
+    public static GsonBuilder registerGeneratedTypeAdapters(GsonBuilder builder) {
+        for (TypeAdapterFactory factory : ServiceLoader.load(TypeAdapterFactory.class, classLoader())) {
+            builder.registerTypeAdapterFactory(factory);
+        }
+
+        return builder;
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        return contextClassLoader != null ? contextClassLoader : GsonUtils.class.getClassLoader();
     }
 }
@@ -0,0 +1,701 @@
+package org.schematik.gson.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a Gson {@code TypeAdapter} for every class that controllers take as a {@code @RequestBody} or return,
+ * directly or inside a generic type such as {@code List<Item>} or {@code ResponseEntity<Item>}, and for the classes of
+ * their fields. The adapters access fields directly or through {@code VarHandle}s instead of reflection, and are
+ * registered as {@code com.google.gson.TypeAdapterFactory} services, which {@code GsonUtils} adds to the shared Gson.
+ * <p>
+ * Only classes compiled together with the controllers get an adapter. Classes Gson handles in ways the generated code
+ * doesn't (generic classes, {@code @JsonAdapter}, final fields, no accessible no-argument constructor, ...) are left
+ * to Gson's reflective adapter.
+ */
+@SupportedAnnotationTypes("org.schematik.api.annotation.Controller")
+public class TypeAdapterProcessor extends AbstractProcessor {
+    static final String FACTORY_SERVICE = "META-INF/services/com.google.gson.TypeAdapterFactory";
+
+    private static final String REQUEST_BODY = "org.schematik.api.annotation.parameter.RequestBody";
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+
+    private final Set<String> compiledTypes = new HashSet<>();
+    private final Set<String> processedTypes = new HashSet<>();
+    private final List<String> factories = new ArrayList<>();
+
+    record DtoField(VariableElement element, String jsonName, List<String> alternateNames, boolean direct) {
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnvironment) {
+        for (Element rootElement : roundEnvironment.getRootElements()) {
+            if (rootElement instanceof TypeElement type) {
+                compiledTypes.add(type.getQualifiedName().toString());
+            }
+        }
+
+        Deque<TypeMirror> candidates = new ArrayDeque<>();
+        for (TypeElement annotation : annotations) {
+            for (Element controller : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                for (ExecutableElement method : ElementFilter.methodsIn(controller.getEnclosedElements())) {
+                    candidates.add(method.getReturnType());
+                    for (VariableElement parameter : method.getParameters()) {
+                        if (hasAnnotation(parameter, REQUEST_BODY)) {
+                            candidates.add(parameter.asType());
+                        }
+                    }
+                }
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            TypeMirror type = candidates.poll();
+            if (type instanceof ArrayType arrayType) {
+                candidates.add(arrayType.getComponentType());
+            } else if (type instanceof WildcardType wildcardType) {
+                if (wildcardType.getExtendsBound() != null) {
+                    candidates.add(wildcardType.getExtendsBound());
+                }
+            } else if (type instanceof DeclaredType declaredType) {
+                candidates.addAll(declaredType.getTypeArguments());
+
+                TypeElement typeElement = (TypeElement) declaredType.asElement();
+                if (isCompiled(typeElement) && processedTypes.add(typeElement.getQualifiedName().toString())) {
+                    List<DtoField> fields = dtoFields(typeElement);
+                    if (fields != null) {
+                        fields.forEach(field -> candidates.add(field.element().asType()));
+                        generateAdapter(typeElement, fields);
+                    }
+                }
+            }
+        }
+
+        if (roundEnvironment.processingOver() && !factories.isEmpty()) {
+            writeFactoryServices();
+        }
+
+        return false;
+    }
+
+    private boolean isCompiled(TypeElement type) {
+        Element topLevel = type;
+        while (topLevel.getEnclosingElement() instanceof TypeElement enclosing) {
+            topLevel = enclosing;
+        }
+
+        return compiledTypes.contains(((TypeElement) topLevel).getQualifiedName().toString());
+    }
+
+    /**
+     * Returns the fields Gson serializes for the type, in Gson's order (the class's own fields first, then those of its
+     * superclasses), or {@code null} if no adapter should be
+     * generated for the type.
+     */
+    private List<DtoField> dtoFields(TypeElement type) {
+        boolean record = type.getKind() == ElementKind.RECORD;
+        if (!record && type.getKind() != ElementKind.CLASS) {
+            return null;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)
+                || !type.getTypeParameters().isEmpty()
+                || hasAnnotation(type, JSON_ADAPTER)
+                || !isAccessible(type)) {
+            return null;
+        }
+        if (!record && !hasAccessibleNoArgumentConstructor(type)) {
+            return null;
+        }
+
+        String packageName = packageOf(type);
+
+        List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = type; current != null; current = superclassOf(current)) {
+            if (current != type && !current.getTypeParameters().isEmpty()) {
+                return null;
+            }
+            hierarchy.add(current);
+        }
+
+        List<DtoField> fields = new ArrayList<>();
+        Set<String> jsonNames = new HashSet<>();
+        for (TypeElement declaringType : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(declaringType.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                if ((!record && modifiers.contains(Modifier.FINAL))
+                        || hasAnnotation(field, JSON_ADAPTER)
+                        || !isAccessibleFrom(field.asType(), packageName)) {
+                    return null;
+                }
+
+                String jsonName = field.getSimpleName().toString();
+                List<String> alternateNames = new ArrayList<>();
+                AnnotationMirror serializedName = annotation(field, SERIALIZED_NAME);
+                if (serializedName != null) {
+                    for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value :
+                            serializedName.getElementValues().entrySet()) {
+                        if (value.getKey().getSimpleName().contentEquals("value")) {
+                            jsonName = (String) value.getValue().getValue();
+                        } else if (value.getKey().getSimpleName().contentEquals("alternate")) {
+                            for (Object alternate : (List<?>) value.getValue().getValue()) {
+                                alternateNames.add((String) ((AnnotationValue) alternate).getValue());
+                            }
+                        }
+                    }
+                }
+
+                // Gson rejects classes with duplicate field names, let it report them
+                if (!jsonNames.add(jsonName) || !alternateNames.stream().allMatch(jsonNames::add)) {
+                    return null;
+                }
+
+                boolean direct = record
+                        || (!modifiers.contains(Modifier.PRIVATE) && packageOf(declaringType).equals(packageName));
+                fields.add(new DtoField(field, jsonName, alternateNames, direct));
+            }
+        }
+
+        return fields;
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        if (!(type.getSuperclass() instanceof DeclaredType superclass)) {
+            return null;
+        }
+
+        TypeElement superclassElement = (TypeElement) superclass.asElement();
+        String name = superclassElement.getQualifiedName().toString();
+        if (name.equals("java.lang.Object") || name.equals("java.lang.Record")) {
+            return null;
+        }
+
+        return superclassElement;
+    }
+
+    private boolean hasAccessibleNoArgumentConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty()) {
+                return !constructor.getModifiers().contains(Modifier.PRIVATE);
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns whether the generated adapter, which is in the same package, can name and create the type.
+     */
+    private boolean isAccessible(TypeElement type) {
+        NestingKind nestingKind = type.getNestingKind();
+        if (nestingKind != NestingKind.TOP_LEVEL && nestingKind != NestingKind.MEMBER) {
+            return false;
+        }
+
+        // Inner classes need an instance of the enclosing class
+        if (nestingKind == NestingKind.MEMBER
+                && type.getKind() == ElementKind.CLASS
+                && !type.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the generated adapter, which is in the given package, can name every class in the type.
+     */
+    private boolean isAccessibleFrom(TypeMirror type, String packageName) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type instanceof ArrayType arrayType) {
+            return isAccessibleFrom(arrayType.getComponentType(), packageName);
+        }
+        if (type instanceof WildcardType wildcardType) {
+            return (wildcardType.getExtendsBound() == null || isAccessibleFrom(wildcardType.getExtendsBound(), packageName))
+                    && (wildcardType.getSuperBound() == null || isAccessibleFrom(wildcardType.getSuperBound(), packageName));
+        }
+        if (type instanceof DeclaredType declaredType) {
+            for (Element element = declaredType.asElement(); element instanceof TypeElement; element = element.getEnclosingElement()) {
+                Set<Modifier> modifiers = element.getModifiers();
+                if (modifiers.contains(Modifier.PRIVATE)
+                        || (!modifiers.contains(Modifier.PUBLIC) && !packageOf((TypeElement) element).equals(packageName))) {
+                    return false;
+                }
+            }
+
+            return declaredType.getTypeArguments().stream().allMatch(argument -> isAccessibleFrom(argument, packageName));
+        }
+
+        return false;
+    }
+
+    private void generateAdapter(TypeElement type, List<DtoField> fields) {
+        String packageName = packageOf(type);
+        String typeName = type.getQualifiedName().toString();
+        String adapterName = adapterNameOf(type);
+        boolean record = type.getKind() == ElementKind.RECORD;
+
+        try {
+            JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(
+                    packageName.isEmpty() ? adapterName : packageName + "." + adapterName,
+                    type
+            );
+
+            try (PrintWriter out = new PrintWriter(sourceFile.openWriter())) {
+                if (!packageName.isEmpty()) {
+                    out.println("package " + packageName + ";");
+                    out.println();
+                }
+
+                out.println("@javax.annotation.processing.Generated(\"" + TypeAdapterProcessor.class.getName() + "\")");
+                out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+                out.println("public final class " + adapterName + " extends com.google.gson.TypeAdapter<" + typeName + "> {");
+
+                writeVarHandles(out, type, fields);
+                writeConstructor(out, adapterName, fields);
+                writeWrite(out, typeName, fields, record);
+                writeRead(out, type, typeName, fields, record);
+                writeFactory(out, typeName, adapterName);
+
+                out.println("}");
+            }
+
+            factories.add((packageName.isEmpty() ? "" : packageName + ".") + adapterName + "$Factory");
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Unable to generate a type adapter: " + e.getMessage(),
+                    type
+            );
+        }
+    }
+
+    private void writeVarHandles(PrintWriter out, TypeElement type, List<DtoField> fields) {
+        List<DtoField> handleFields = fields.stream().filter(field -> !field.direct()).toList();
+        if (handleFields.isEmpty()) {
+            return;
+        }
+
+        for (DtoField field : handleFields) {
+            out.println("    private static final java.lang.invoke.VarHandle " + handleNameOf(field) + ";");
+        }
+        out.println();
+        out.println("    static {");
+        out.println("        try {");
+        Set<String> lookups = new LinkedHashSet<>();
+        for (DtoField field : handleFields) {
+            TypeElement declaringType = (TypeElement) field.element().getEnclosingElement();
+            String declaringTypeName = declaringType.getQualifiedName().toString();
+            String lookup = lookupNameOf(declaringType);
+            if (lookups.add(lookup)) {
+                out.println("            java.lang.invoke.MethodHandles.Lookup " + lookup
+                        + " = java.lang.invoke.MethodHandles.privateLookupIn(" + declaringTypeName
+                        + ".class, java.lang.invoke.MethodHandles.lookup());");
+            }
+            out.println("            " + handleNameOf(field) + " = " + lookup + ".findVarHandle("
+                    + declaringTypeName + ".class, \"" + field.element().getSimpleName() + "\", "
+                    + sourceNameOf(erasureOf(field.element().asType())) + ".class);");
+        }
+        out.println("        } catch (ReflectiveOperationException e) {");
+        out.println("            throw new ExceptionInInitializerError(e);");
+        out.println("        }");
+        out.println("    }");
+        out.println();
+    }
+
+    private void writeConstructor(PrintWriter out, String adapterName, List<DtoField> fields) {
+        for (DtoField field : fields) {
+            if (!isDirectlyHandled(field.element().asType())) {
+                out.println("    private final com.google.gson.TypeAdapter<" + boxedSourceNameOf(field.element().asType())
+                        + "> " + adapterFieldNameOf(field) + ";");
+            }
+        }
+        out.println("    private final boolean serializeSpecialFloatingPointValues;");
+        out.println();
+        out.println("    " + adapterName + "(com.google.gson.Gson gson) {");
+        for (DtoField field : fields) {
+            TypeMirror fieldType = field.element().asType();
+            if (isDirectlyHandled(fieldType)) {
+                continue;
+            }
+
+            String declaredTypeAdapter;
+            if (fieldType instanceof DeclaredType declaredType && declaredType.getTypeArguments().isEmpty()) {
+                declaredTypeAdapter = "gson.getAdapter(" + sourceNameOf(fieldType) + ".class)";
+                if (!isEffectivelyFinal((TypeElement) declaredType.asElement())) {
+                    declaredTypeAdapter = "org.schematik.gson.GeneratedTypeAdapters.runtimeTypeAdapter(gson, "
+                            + declaredTypeAdapter + ", " + sourceNameOf(fieldType) + ".class)";
+                }
+            } else {
+                declaredTypeAdapter = "gson.getAdapter(new com.google.gson.reflect.TypeToken<"
+                        + boxedSourceNameOf(fieldType) + ">() {})";
+            }
+            out.println("        this." + adapterFieldNameOf(field) + " = " + declaredTypeAdapter + ";");
+        }
+        out.println("        this.serializeSpecialFloatingPointValues = "
+                + "org.schematik.gson.GeneratedTypeAdapters.serializesSpecialFloatingPointValues(gson);");
+        out.println("    }");
+        out.println();
+    }
+
+    private void writeWrite(PrintWriter out, String typeName, List<DtoField> fields, boolean record) {
+        out.println("    @Override");
+        out.println("    public void write(com.google.gson.stream.JsonWriter out, " + typeName + " value) throws java.io.IOException {");
+        out.println("        if (value == null) {");
+        out.println("            out.nullValue();");
+        out.println("            return;");
+        out.println("        }");
+        out.println();
+        out.println("        out.beginObject();");
+        for (DtoField field : fields) {
+            TypeMirror fieldType = field.element().asType();
+            String fieldValue;
+            if (record) {
+                fieldValue = "value." + field.element().getSimpleName() + "()";
+            } else if (field.direct()) {
+                fieldValue = "value." + field.element().getSimpleName();
+            } else {
+                fieldValue = "((" + sourceNameOf(fieldType) + ") " + handleNameOf(field) + ".get(value))";
+            }
+
+            out.println("        out.name(" + stringLiteral(field.jsonName()) + ");");
+            switch (fieldType.getKind()) {
+                case INT, LONG, SHORT, BYTE, BOOLEAN -> out.println("        out.value(" + fieldValue + ");");
+                case CHAR -> out.println("        out.value(String.valueOf(" + fieldValue + "));");
+                case DOUBLE -> out.println("        out.value(org.schematik.gson.GeneratedTypeAdapters.checkFloatingPoint("
+                        + fieldValue + ", serializeSpecialFloatingPointValues));");
+                case FLOAT -> out.println("        out.value((float) org.schematik.gson.GeneratedTypeAdapters.checkFloatingPoint("
+                        + fieldValue + ", serializeSpecialFloatingPointValues));");
+                default -> {
+                    if (isString(fieldType)) {
+                        out.println("        out.value(" + fieldValue + ");");
+                    } else {
+                        out.println("        " + adapterFieldNameOf(field) + ".write(out, " + fieldValue + ");");
+                    }
+                }
+            }
+        }
+        out.println("        out.endObject();");
+        out.println("    }");
+        out.println();
+    }
+
+    private void writeRead(PrintWriter out, TypeElement type, String typeName, List<DtoField> fields, boolean record) {
+        out.println("    @Override");
+        out.println("    public " + typeName + " read(com.google.gson.stream.JsonReader in) throws java.io.IOException {");
+        out.println("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+        out.println("            in.nextNull();");
+        out.println("            return null;");
+        out.println("        }");
+        out.println();
+        if (record) {
+            for (DtoField field : fields) {
+                TypeMirror fieldType = field.element().asType();
+                out.println("        " + sourceNameOf(fieldType) + " " + localNameOf(field) + " = " + defaultValueOf(fieldType) + ";");
+            }
+        } else {
+            out.println("        " + typeName + " instance = new " + typeName + "();");
+        }
+        out.println("        try {");
+        out.println("            in.beginObject();");
+        out.println("            while (in.hasNext()) {");
+        out.println("                switch (in.nextName()) {");
+        for (DtoField field : fields) {
+            List<String> names = new ArrayList<>();
+            names.add(stringLiteral(field.jsonName()));
+            field.alternateNames().forEach(name -> names.add(stringLiteral(name)));
+
+            TypeMirror fieldType = field.element().asType();
+            String readValue = readExpressionOf(field, fieldType);
+            String assignment;
+            if (record) {
+                assignment = localNameOf(field) + " = " + readValue + ";";
+            } else if (field.direct()) {
+                assignment = "instance." + field.element().getSimpleName() + " = " + readValue + ";";
+            } else {
+                assignment = handleNameOf(field) + ".set(instance, (" + sourceNameOf(fieldType) + ") " + readValue + ");";
+            }
+
+            out.println("                    case " + String.join(", ", names) + " -> {");
+            if (record && fieldType.getKind().isPrimitive()) {
+                // Like Gson, reject null values of primitive record components
+                out.println("                        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+                out.println("                            in.nextNull();");
+                out.println("                            throw org.schematik.gson.GeneratedTypeAdapters.nullPrimitiveRecordComponent(in, "
+                        + stringLiteral(field.element().getSimpleName().toString()) + ");");
+                out.println("                        }");
+                out.println("                        " + assignment);
+            } else if (fieldType.getKind().isPrimitive()) {
+                // Like Gson, leave primitive fields unchanged when the value is null
+                out.println("                        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {");
+                out.println("                            in.nextNull();");
+                out.println("                        } else {");
+                out.println("                            " + assignment);
+                out.println("                        }");
+            } else {
+                out.println("                        " + assignment);
+            }
+            out.println("                    }");
+        }
+        out.println("                    default -> in.skipValue();");
+        out.println("                }");
+        out.println("            }");
+        out.println("            in.endObject();");
+        out.println("        } catch (IllegalStateException e) {");
+        out.println("            throw new com.google.gson.JsonSyntaxException(e);");
+        out.println("        }");
+        out.println();
+        if (record) {
+            List<String> arguments = fields.stream().map(this::localNameOf).toList();
+            out.println("        return new " + typeName + "(" + String.join(", ", arguments) + ");");
+        } else {
+            out.println("        return instance;");
+        }
+        out.println("    }");
+        out.println();
+    }
+
+    private void writeFactory(PrintWriter out, String typeName, String adapterName) {
+        out.println("    public static final class Factory implements com.google.gson.TypeAdapterFactory {");
+        out.println("        @Override");
+        out.println("        public <T> com.google.gson.TypeAdapter<T> create(com.google.gson.Gson gson, com.google.gson.reflect.TypeToken<T> type) {");
+        out.println("            if (type.getRawType() != " + typeName + ".class");
+        out.println("                    || !org.schematik.gson.GeneratedTypeAdapters.supports(gson)) {");
+        out.println("                return null;");
+        out.println("            }");
+        out.println();
+        out.println("            return (com.google.gson.TypeAdapter<T>) new " + adapterName + "(gson);");
+        out.println("        }");
+        out.println("    }");
+    }
+
+    private String readExpressionOf(DtoField field, TypeMirror fieldType) {
+        String helper = "org.schematik.gson.GeneratedTypeAdapters.";
+        return switch (fieldType.getKind()) {
+            case INT -> helper + "readInt(in)";
+            case LONG -> helper + "readLong(in)";
+            case SHORT -> helper + "readShort(in)";
+            case BYTE -> helper + "readByte(in)";
+            case BOOLEAN -> helper + "readBoolean(in)";
+            case CHAR -> helper + "readChar(in)";
+            case DOUBLE -> helper + "readDouble(in)";
+            case FLOAT -> "(float) " + helper + "readDouble(in)";
+            default -> isString(fieldType)
+                    ? helper + "readString(in)"
+                    : adapterFieldNameOf(field) + ".read(in)";
+        };
+    }
+
+    private void writeFactoryServices() {
+        try {
+            FileObject servicesFile = processingEnv.getFiler().createResource(
+                    StandardLocation.CLASS_OUTPUT,
+                    "",
+                    FACTORY_SERVICE
+            );
+
+            try (Writer writer = servicesFile.openWriter()) {
+                for (String factory : factories) {
+                    writer.write(factory);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Unable to register the generated type adapters: " + e.getMessage()
+            );
+        }
+    }
+
+    private boolean isDirectlyHandled(TypeMirror type) {
+        return type.getKind().isPrimitive() || isString(type);
+    }
+
+    private boolean isString(TypeMirror type) {
+        return type instanceof DeclaredType declaredType
+                && ((TypeElement) declaredType.asElement()).getQualifiedName().contentEquals("java.lang.String");
+    }
+
+    private boolean isEffectivelyFinal(TypeElement type) {
+        return type.getModifiers().contains(Modifier.FINAL)
+                || type.getKind() == ElementKind.ENUM
+                || type.getKind() == ElementKind.RECORD;
+    }
+
+    private TypeMirror erasureOf(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    /**
+     * Returns the type as it is written in source code, without type annotations.
+     */
+    private String sourceNameOf(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase();
+        }
+        if (type instanceof ArrayType arrayType) {
+            return sourceNameOf(arrayType.getComponentType()) + "[]";
+        }
+        if (type instanceof WildcardType wildcardType) {
+            if (wildcardType.getExtendsBound() != null) {
+                return "? extends " + sourceNameOf(wildcardType.getExtendsBound());
+            }
+            if (wildcardType.getSuperBound() != null) {
+                return "? super " + sourceNameOf(wildcardType.getSuperBound());
+            }
+            return "?";
+        }
+        if (type instanceof DeclaredType declaredType) {
+            String name = ((TypeElement) declaredType.asElement()).getQualifiedName().toString();
+            if (declaredType.getTypeArguments().isEmpty()) {
+                return name;
+            }
+
+            List<String> arguments = declaredType.getTypeArguments().stream().map(this::sourceNameOf).toList();
+            return name + "<" + String.join(", ", arguments) + ">";
+        }
+
+        return type.toString();
+    }
+
+    private String boxedSourceNameOf(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type)
+                    .getQualifiedName()
+                    .toString();
+        }
+
+        return sourceNameOf(type);
+    }
+
+    private String defaultValueOf(TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return "false";
+        }
+        if (type.getKind().isPrimitive()) {
+            return "(" + sourceNameOf(type) + ") 0";
+        }
+
+        return "null";
+    }
+
+    private String adapterNameOf(TypeElement type) {
+        List<String> names = new ArrayList<>();
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            names.add(0, element.getSimpleName().toString());
+        }
+
+        return String.join("_", names) + "_GsonTypeAdapter";
+    }
+
+    private String handleNameOf(DtoField field) {
+        return field.element().getEnclosingElement().getSimpleName().toString().toUpperCase()
+                + "_" + field.element().getSimpleName().toString().toUpperCase();
+    }
+
+    private String lookupNameOf(TypeElement declaringType) {
+        String simpleName = declaringType.getSimpleName().toString();
+        return Character.toLowerCase(simpleName.charAt(0)) + simpleName.substring(1) + "Lookup";
+    }
+
+    private String adapterFieldNameOf(DtoField field) {
+        return field.element().getEnclosingElement().getSimpleName() + "_" + field.element().getSimpleName() + "Adapter";
+    }
+
+    private String localNameOf(DtoField field) {
+        return "_" + field.element().getSimpleName();
+    }
+
+    private String packageOf(TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.getQualifiedName().toString();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        return annotation(element, annotationName) != null;
+    }
+
+    private static AnnotationMirror annotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            if (annotationType.getQualifiedName().contentEquals(annotationName)) {
+                return annotation;
+            }
+        }
+
+        return null;
+    }
+
+    private static String stringLiteral(String value) {
+        StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> literal.append("\\\"");
+                case '\\' -> literal.append("\\\\");
+                case '\n' -> literal.append("\\n");
+                case '\r' -> literal.append("\\r");
+                case '\t' -> literal.append("\\t");
+                default -> {
+                    if (c < 0x20 || c > 0x7e) {
+                        literal.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        literal.append(c);
+                    }
+                }
+            }
+        }
+
+        return literal.append('"').toString();
+    }
+}
@@ -0,0 +1,230 @@
+package org.schematik.jetty;
+
+import io.javalin.config.JavalinConfig;
+import io.javalin.http.Context;
+import io.javalin.http.NotFoundResponse;
+import org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory;
+import org.eclipse.jetty.http2.HTTP2Cipher;
+import org.eclipse.jetty.http2.server.AbstractHTTP2ServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory;
+import org.eclipse.jetty.server.*;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.schematik.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the Jetty connectors according to the {@code server.*} properties:
+ * <ul>
+ *     <li>The main connector, on {@code server.port}, speaks HTTP/1.1 and, unless {@code server.http2.enabled} is
+ *     {@code false}, cleartext HTTP/2 (h2c), both with prior knowledge and by upgrade from HTTP/1.1.</li>
+ *     <li>If {@code server.ssl.keyStorePath} is set, a TLS connector on {@code server.ssl.port} negotiates HTTP/2 or
+ *     HTTP/1.1 with ALPN.</li>
+ *     <li>If {@code server.admin.port} is set, an admin connector with its own small thread pool serves the paths
+ *     under {@code server.admin.pathPrefix}, such as the metrics endpoint. These paths are then no longer served by
+ *     the other connectors, and the admin connector serves nothing else, so admin traffic never waits for the main
+ *     request thread pool.</li>
+ * </ul>
+ */
+public class ConnectorConfig {
+    static Logger logger = LoggerFactory.getLogger(ConnectorConfig.class);
+
+    public static final String MAIN_CONNECTOR = "main";
+    public static final String TLS_CONNECTOR = "tls";
+    public static final String ADMIN_CONNECTOR = "admin";
+
+    // The admin connector leases one acceptor and one selector thread from its pool, and needs threads left for requests
+    private static final int MIN_ADMIN_THREADS = 4;
+
+    public static int getPort() {
+        return Integer.parseInt(Application.getPropertyOrDefault("server.port", "8090"));
+    }
+
+    public static void configure(JavalinConfig javalinConfig) {
+        String host = Application.getProperty("server.host");
+        int acceptors = Integer.parseInt(Application.getPropertyOrDefault("server.acceptors", "-1"));
+        int selectors = Integer.parseInt(Application.getPropertyOrDefault("server.selectors", "-1"));
+        long idleTimeout = Long.parseLong(Application.getPropertyOrDefault("server.idleTimeoutMs", "30000"));
+        boolean http2 = Boolean.parseBoolean(Application.getPropertyOrDefault("server.http2.enabled", "true"));
+        int maxConcurrentStreams = Integer.parseInt(Application.getPropertyOrDefault(
+                "server.http2.maxConcurrentStreams",
+                "128"
+        ));
+
+        // Javalin reports the port of the first connector, so the main connector is added first
+        javalinConfig.jetty.addConnector((server, httpConfiguration) -> {
+            List<ConnectionFactory> connectionFactories = new ArrayList<>();
+            connectionFactories.add(new HttpConnectionFactory(httpConfiguration));
+            if (http2) {
+                connectionFactories.add(withMaxConcurrentStreams(
+                        new HTTP2CServerConnectionFactory(httpConfiguration),
+                        maxConcurrentStreams
+                ));
+            }
+
+            ServerConnector connector = new ServerConnector(
+                    server,
+                    acceptors,
+                    selectors,
+                    connectionFactories.toArray(new ConnectionFactory[0])
+            );
+            connector.setName(MAIN_CONNECTOR);
+            connector.setHost(host);
+            connector.setPort(getPort());
+            connector.setIdleTimeout(idleTimeout);
+
+            return connector;
+        });
+
+        String keyStorePath = Application.getProperty("server.ssl.keyStorePath");
+        if (keyStorePath != null && !keyStorePath.isBlank()) {
+            int sslPort = Integer.parseInt(Application.getPropertyOrDefault("server.ssl.port", "8443"));
+
+            javalinConfig.jetty.addConnector((server, httpConfiguration) -> {
+                SslContextFactory.Server sslContextFactory = new SslContextFactory.Server();
+                sslContextFactory.setKeyStorePath(keyStorePath);
+                sslContextFactory.setKeyStorePassword(Application.getProperty("server.ssl.keyStorePassword"));
+                sslContextFactory.setKeyStoreType(Application.getPropertyOrDefault("server.ssl.keyStoreType", "PKCS12"));
+
+                HttpConfiguration httpsConfiguration = new HttpConfiguration(httpConfiguration);
+                httpsConfiguration.addCustomizer(new SecureRequestCustomizer());
+
+                HttpConnectionFactory http1 = new HttpConnectionFactory(httpsConfiguration);
+
+                ServerConnector connector;
+                if (http2) {
+                    // HTTP/2 forbids the ciphers that RFC 7540 blacklists, so they are sorted last
+                    sslContextFactory.setCipherComparator(HTTP2Cipher.COMPARATOR);
+
+                    ALPNServerConnectionFactory alpn = new ALPNServerConnectionFactory();
+                    alpn.setDefaultProtocol(http1.getProtocol());
+
+                    connector = new ServerConnector(
+                            server,
+                            acceptors,
+                            selectors,
+                            new SslConnectionFactory(sslContextFactory, alpn.getProtocol()),
+                            alpn,
+                            withMaxConcurrentStreams(
+                                    new HTTP2ServerConnectionFactory(httpsConfiguration),
+                                    maxConcurrentStreams
+                            ),
+                            http1
+                    );
+                } else {
+                    connector = new ServerConnector(
+                            server,
+                            acceptors,
+                            selectors,
+                            new SslConnectionFactory(sslContextFactory, http1.getProtocol()),
+                            http1
+                    );
+                }
+                connector.setName(TLS_CONNECTOR);
+                connector.setHost(host);
+                connector.setPort(sslPort);
+                connector.setIdleTimeout(idleTimeout);
+
+                return connector;
+            });
+        }
+
+        String adminPort = Application.getProperty("server.admin.port");
+        if (adminPort != null && !adminPort.isBlank()) {
+            configureAdminConnector(javalinConfig, Integer.parseInt(adminPort.trim()), idleTimeout);
+        }
+    }
+
+    private static void configureAdminConnector(JavalinConfig javalinConfig, int adminPort, long idleTimeout) {
+        String adminHost = Application.getPropertyOrDefault("server.admin.host", Application.getProperty("server.host"));
+        int adminThreads = Integer.parseInt(Application.getPropertyOrDefault("server.admin.threads", "8"));
+        String pathPrefix = getAdminPathPrefix();
+
+        if (adminThreads < MIN_ADMIN_THREADS) {
+            throw new IllegalArgumentException(String.format(
+                    "server.admin.threads is %d, but the admin connector needs at least %d threads: one acceptor, one selector and at least two for requests.",
+                    adminThreads,
+                    MIN_ADMIN_THREADS
+            ));
+        }
+
+        javalinConfig.jetty.addConnector((server, httpConfiguration) -> {
+            // The connector runs its requests on its own pool, not on the server's
+            QueuedThreadPool threadPool = new QueuedThreadPool(adminThreads, Math.min(2, adminThreads));
+            threadPool.setName("schematik-admin");
+
+            ServerConnector connector = new ServerConnector(
+                    server,
+                    threadPool,
+                    null,
+                    null,
+                    1,
+                    1,
+                    new HttpConnectionFactory(httpConfiguration)
+            );
+            connector.setName(ADMIN_CONNECTOR);
+            connector.setHost(adminHost);
+            connector.setPort(adminPort);
+            connector.setIdleTimeout(idleTimeout);
+
+            logger.info(String.format("Serving %s on admin port %d", pathPrefix, adminPort));
+
+            return connector;
+        });
+
+        javalinConfig.router.mount(router -> router.before(context -> {
+            if (isAdminPath(context.path()) != ADMIN_CONNECTOR.equals(connectorName(context))) {
+                throw new NotFoundResponse();
+            }
+        }));
+    }
+
+    /**
+     * Checks whether a path is served only by the admin connector. Without {@code server.admin.port}, no path is.
+     * Requests that reach routes in another way than through the router, such as the sub-requests of a batch, have to
+     * leave out these paths themselves.
+     */
+    public static boolean isAdminPath(String path) {
+        String adminPort = Application.getProperty("server.admin.port");
+        if (adminPort == null || adminPort.isBlank()) {
+            return false;
+        }
+
+        String pathPrefix = getAdminPathPrefix();
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+
+        return path.equals(pathPrefix) || path.startsWith(pathPrefix + "/");
+    }
+
+    private static String getAdminPathPrefix() {
+        return Application.getPropertyOrDefault("server.admin.pathPrefix", "/admin");
+    }
+
+    /**
+     * Returns the name of the connector that received a request.
+     */
+    public static String connectorName(Context context) {
+        Request request = Request.getBaseRequest(context.req());
+        if (request == null) {
+            return null;
+        }
+
+        return request.getHttpChannel().getConnector().getName();
+    }
+
+    private static AbstractHTTP2ServerConnectionFactory withMaxConcurrentStreams(
+            AbstractHTTP2ServerConnectionFactory connectionFactory,
+            int maxConcurrentStreams
+    ) {
+        connectionFactory.setMaxConcurrentStreams(maxConcurrentStreams);
+
+        return connectionFactory;
+    }
+}
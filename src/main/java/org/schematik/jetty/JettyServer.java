@@ -2,48 +2,67 @@ package org.schematik.jetty;
 
 import com.google.gson.Gson;
 import io.javalin.Javalin;
+import io.javalin.compression.CompressionStrategy;
 import io.javalin.config.JavalinConfig;
 import io.javalin.http.staticfiles.Location;
 import io.javalin.json.JavalinGson;
 import io.javalin.plugin.bundled.CorsPluginConfig;
+import org.eclipse.jetty.server.handler.gzip.GzipHandler;
+import org.eclipse.jetty.util.compression.DeflaterPool;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.schematik.Application;
+import org.schematik.StartupReport;
 import org.schematik.gson.GsonUtils;
 import org.schematik.plugin.PluginConfig;
 import org.schematik.api.RestApiConfig;
+import org.schematik.api.RestApiUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
+import java.util.zip.Deflater;
 
 public class JettyServer {
     public static JettyServer instance;
 
     static Logger logger = LoggerFactory.getLogger(JettyServer.class);
 
-    int minThreads = 200;
-    int maxThreads = 250;
-    int idleTimeout = 120;
-
     public Javalin app;
 
+    // A training run can also be requested by applications with their own main class, with -Dschematik.trainingRun=true
+    private boolean trainingRun = Boolean.getBoolean("schematik.trainingRun");
+
     public void start() {
         start(GsonUtils.getDefaultGson());
     }
 
     public void start(Gson gson) {
+        // Share the server's Gson with the REST apis and the plugins
+        GsonUtils.setDefaultGson(gson);
+
         start(javalinConfig -> {
-            javalinConfig.jetty.threadPool = new QueuedThreadPool(maxThreads, minThreads, idleTimeout);
+            javalinConfig.jetty.threadPool = createThreadPool();
+            ConnectorConfig.configure(javalinConfig);
 
             javalinConfig.showJavalinBanner = false;
 
             javalinConfig.bundledPlugins.enableCors(cors -> cors.addRule(CorsPluginConfig.CorsRule::anyHost));
 
+            configureCompression(javalinConfig);
+
+            // Static files of precompressed configs are served from memory, compressed once
+            javalinConfig.pvt.resourceHandler = new StaticAssetCache();
             javalinConfig.staticFiles.add(staticFileConfig -> {
                 staticFileConfig.directory = "/swagger-ui";
                 staticFileConfig.location = Location.CLASSPATH;
-                staticFileConfig.precompress = false;
+                staticFileConfig.precompress = true;
+                // Drop Javalin's default Cache-Control, so the cached files get server.staticFiles.maxAgeSeconds
+                staticFileConfig.headers = Map.of();
             });
 
             javalinConfig.jsonMapper(new JavalinGson(gson, false));
@@ -55,20 +74,39 @@ public class JettyServer {
     public void start(Consumer<JavalinConfig> javalinConfig) {
         instance = this;
 
-        app = Javalin.create(javalinConfig);
+        long startedAt = System.nanoTime();
 
-        // Load properties
+        // Load properties, the Javalin configuration depends on them
         Application.initialize();
+        startedAt = StartupReport.recordPhase("properties", startedAt);
+
+        app = Javalin.create(javalinConfig);
+        startedAt = StartupReport.recordPhase("javalin", startedAt);
+
+        // Controller discovery doesn't depend on the plugins, so it runs while they register
+        CompletableFuture<Set<Class<?>>> controllerClasses = RestApiUtils.discoverControllerClasses();
 
         // Custom plugins
         PluginConfig.initialize();
+        startedAt = StartupReport.recordPhase("plugins", startedAt);
 
         // Rest API config
-        RestApiConfig.initialize();
+        RestApiConfig.initialize(controllerClasses);
+        startedAt = StartupReport.recordPhase("rest api", startedAt);
 
-        app.start(8090);
+        app.start(ConnectorConfig.getPort());
+        StartupReport.recordPhase("server start", startedAt);
 
         logger.info("Server ready...");
+        StartupReport.log();
+
+        if (trainingRun) {
+            new TrainingRun(app.port()).run();
+
+            // The class data sharing archive is written when the JVM exits
+            stop();
+            return;
+        }
 
         try {
             Objects.requireNonNull(app.jettyServer()).server().join();
@@ -77,6 +115,84 @@ public class JettyServer {
         }
     }
 
+    /**
+     * If set, the server exercises its routes and scheduled jobs once after starting and then exits. See
+     * {@link TrainingRun}.
+     */
+    public void setTrainingRun(boolean trainingRun) {
+        this.trainingRun = trainingRun;
+    }
+
+    /**
+     * Creates the Jetty thread pool according to the {@code server.threads.*} properties. In {@code bounded} mode every
+     * request is handled on a platform thread from the pool. In {@code virtual} mode Jetty keeps the platform pool for
+     * its selectors and acceptors only, and runs request handling on a new virtual thread per request, so requests
+     * that block on I/O do not hold a platform thread.
+     */
+    QueuedThreadPool createThreadPool() {
+        String mode = Application.getPropertyOrDefault("server.threads.mode", "bounded");
+        boolean virtual = "virtual".equalsIgnoreCase(mode);
+        if (!virtual && !"bounded".equalsIgnoreCase(mode)) {
+            logger.warn(String.format("Unknown server.threads.mode \"%s\", falling back to bounded.", mode));
+        }
+
+        int minThreads = Integer.parseInt(Application.getPropertyOrDefault(
+                "server.threads.min",
+                virtual ? "8" : "200"
+        ));
+        int maxThreads = Integer.parseInt(Application.getPropertyOrDefault(
+                "server.threads.max",
+                virtual ? "50" : "250"
+        ));
+        int idleTimeout = Integer.parseInt(Application.getPropertyOrDefault("server.threads.idleTimeoutMs", "120"));
+
+        QueuedThreadPool threadPool = new QueuedThreadPool(maxThreads, minThreads, idleTimeout);
+        threadPool.setName("schematik-server");
+
+        if (virtual) {
+            threadPool.setVirtualThreadsExecutor(Executors.newThreadPerTaskExecutor(
+                    Thread.ofVirtual().name("schematik-request-", 0).factory()
+            ));
+        }
+
+        logger.info(String.format(
+                "Using %s request execution (%d-%d platform threads)",
+                virtual ? "virtual thread" : "bounded thread pool",
+                minThreads,
+                maxThreads
+        ));
+
+        return threadPool;
+    }
+
+    /**
+     * Configures the compression of dynamic responses according to the {@code server.compression.*} properties.
+     * Responses are compressed by Jetty's gzip handler, which reuses its deflaters from a pool instead of allocating
+     * one per response, and only if they are larger than {@code server.compression.minSize} bytes. Javalin's own
+     * compression is turned off, so that responses are not compressed twice.
+     */
+    void configureCompression(JavalinConfig javalinConfig) {
+        javalinConfig.http.customCompression(CompressionStrategy.NONE);
+
+        if (!Boolean.parseBoolean(Application.getPropertyOrDefault("server.compression.enabled", "true"))) {
+            return;
+        }
+
+        int minSize = Integer.parseInt(Application.getPropertyOrDefault("server.compression.minSize", "1024"));
+        int level = Integer.parseInt(Application.getPropertyOrDefault(
+                "server.compression.level",
+                String.valueOf(Deflater.DEFAULT_COMPRESSION)
+        ));
+        int poolCapacity = Integer.parseInt(Application.getPropertyOrDefault("server.compression.poolCapacity", "256"));
+
+        GzipHandler gzipHandler = new GzipHandler();
+        gzipHandler.setMinGzipSize(minSize);
+        gzipHandler.setIncludedMethods("GET", "POST", "PUT", "PATCH", "DELETE");
+        gzipHandler.setDeflaterPool(new DeflaterPool(poolCapacity, level, true));
+
+        javalinConfig.jetty.modifyServletContextHandler(handler -> handler.insertHandler(gzipHandler));
+    }
+
     public void stop() {
         logger.info("Server exiting...");
         app.stop();
@@ -0,0 +1,485 @@
+package org.schematik.jetty;
+
+import io.javalin.compression.Brotli4jCompressor;
+import io.javalin.compression.CompressionStrategy;
+import io.javalin.compression.Compressor;
+import io.javalin.compression.GzipCompressor;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import io.javalin.http.staticfiles.Location;
+import io.javalin.http.staticfiles.ResourceHandler;
+import io.javalin.http.staticfiles.StaticFileConfig;
+import org.eclipse.jetty.http.MimeTypes;
+import org.eclipse.jetty.util.resource.Resource;
+import org.schematik.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves static files. Files of configs with {@code precompress} set are read once, on their first request, and then
+ * served from memory, compressed with gzip and, if brotli4j is on the classpath, with brotli. Compression runs on a
+ * background thread, so the first requests of a file are served uncompressed. Each representation has a strong ETag,
+ * so unchanged files are answered with {@code 304 Not Modified}.
+ * <p>
+ * Files larger than {@code server.staticFiles.maxFileBytes}, files that no longer fit in the
+ * {@code server.staticFiles.maxCacheBytes} of the cache, and the files of other configs are streamed from their
+ * location on every request. Cached files are sent with a {@code Cache-Control} header whose max age is set by the
+ * {@code server.staticFiles.maxAgeSeconds} property, unless the headers of their config set one. Streamed files only
+ * get the headers of their config.
+ * <p>
+ * Cached files are assumed not to change while the server runs, which holds for files on the classpath.
+ */
+public class StaticAssetCache implements ResourceHandler {
+    static Logger logger = LoggerFactory.getLogger(StaticAssetCache.class);
+
+    private record StaticFile(StaticFileConfig config, String name, URL url, long size) {
+    }
+
+    // The size is what the asset counts against the cache, which includes its pending compressed representations
+    private record StaticAsset(
+            StaticFileConfig config,
+            String contentType,
+            Map<String, byte[]> bodies,
+            String etag,
+            long size
+    ) {
+    }
+
+    private static final String IDENTITY = "identity";
+
+    // Compressed representations that don't save at least this share of the size are not kept
+    private static final double MIN_COMPRESSION_RATIO = 0.9;
+
+    private final List<StaticFileConfig> configs = new CopyOnWriteArrayList<>();
+    private final Map<String, StaticAsset> assets = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final List<Compressor> compressors = new ArrayList<>();
+    private final ExecutorService compressionExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().daemon().name("schematik-static-compression").factory()
+    );
+    private final String cacheControl;
+    private final long maxFileBytes;
+    private final long maxCacheBytes;
+
+    public StaticAssetCache() {
+        if (CompressionStrategy.Companion.brotliImplAvailable()) {
+            compressors.add(new Brotli4jCompressor(11));
+        }
+        compressors.add(new GzipCompressor(9));
+
+        long maxAgeSeconds = Long.parseLong(Application.getPropertyOrDefault(
+                "server.staticFiles.maxAgeSeconds",
+                "86400"
+        ));
+        cacheControl = "public, max-age=" + maxAgeSeconds;
+        maxFileBytes = Long.parseLong(Application.getPropertyOrDefault(
+                "server.staticFiles.maxFileBytes",
+                "1048576"
+        ));
+        maxCacheBytes = Long.parseLong(Application.getPropertyOrDefault(
+                "server.staticFiles.maxCacheBytes",
+                "67108864"
+        ));
+    }
+
+    @Override
+    public boolean addStaticFileConfig(StaticFileConfig config) {
+        if (config.location == Location.CLASSPATH && Thread.currentThread().getContextClassLoader()
+                .getResource(classpathDirectory(config)) == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Static resource directory with path: '%s' does not exist.",
+                    config.directory
+            ));
+        }
+
+        return configs.add(config);
+    }
+
+    @Override
+    public boolean canHandle(Context context) {
+        return isReadMethod(context) && (findAsset(context) != null || findFile(context) != null);
+    }
+
+    @Override
+    public boolean handle(Context context) {
+        if (!isReadMethod(context)) {
+            return false;
+        }
+
+        StaticAsset asset = findAsset(context);
+        if (asset != null) {
+            sendAsset(context, asset);
+            return true;
+        }
+
+        StaticFile file = findFile(context);
+        if (file == null) {
+            return false;
+        }
+
+        asset = cacheAsset(context.path(), file);
+        if (asset != null) {
+            sendAsset(context, asset);
+        } else {
+            sendFile(context, file);
+        }
+
+        return true;
+    }
+
+    /**
+     * Removes all cached files, so that they are read and compressed again on their next request.
+     */
+    public void clear() {
+        assets.forEach(this::removeAsset);
+    }
+
+    private static boolean isReadMethod(Context context) {
+        String method = context.req().getMethod();
+
+        return "GET".equals(method) || "HEAD".equals(method);
+    }
+
+    private void sendAsset(Context context, StaticAsset asset) {
+        String encoding = negotiateEncoding(asset, context.header(Header.ACCEPT_ENCODING));
+        String etag = etagOf(asset, encoding);
+
+        asset.config().headers.forEach(context::header);
+        if (!setsCacheControl(asset.config())) {
+            context.header(Header.CACHE_CONTROL, cacheControl);
+        }
+        context.header(Header.VARY, Header.ACCEPT_ENCODING);
+        context.header(Header.ETAG, etag);
+
+        if (matches(context.header(Header.IF_NONE_MATCH), etag)) {
+            context.status(HttpStatus.NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = asset.bodies().get(encoding);
+        if (!IDENTITY.equals(encoding)) {
+            context.header(Header.CONTENT_ENCODING, encoding);
+        }
+        context.contentType(asset.contentType());
+        context.header(Header.CONTENT_LENGTH, String.valueOf(body.length));
+        context.result(body);
+    }
+
+    private void sendFile(Context context, StaticFile file) {
+        file.config().headers.forEach(context::header);
+        context.contentType(contentTypeOf(file.config(), file.name()));
+        if (file.size() >= 0) {
+            context.header(Header.CONTENT_LENGTH, String.valueOf(file.size()));
+        }
+
+        try {
+            context.result(file.url().openStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean setsCacheControl(StaticFileConfig config) {
+        return config.headers.keySet().stream().anyMatch(Header.CACHE_CONTROL::equalsIgnoreCase);
+    }
+
+    private StaticAsset findAsset(Context context) {
+        StaticAsset asset = assets.get(context.path());
+        if (asset == null || skips(asset.config(), context)) {
+            return null;
+        }
+
+        return asset;
+    }
+
+    /**
+     * Reads a file into the cache if its config is precompressed and the file fits, and starts compressing it in the
+     * background. Returns {@code null} if the file has to be streamed instead.
+     */
+    private StaticAsset cacheAsset(String path, StaticFile file) {
+        if (!file.config().precompress || file.size() < 0 || file.size() > maxFileBytes) {
+            return null;
+        }
+
+        // The compressed representations are reserved up front, so the cache never grows past its limit
+        long reservedBytes = file.size() * (1 + compressors.size());
+        if (cachedBytes.addAndGet(reservedBytes) > maxCacheBytes) {
+            cachedBytes.addAndGet(-reservedBytes);
+            logger.debug(String.format("Static file cache is full, streaming %s", path));
+            return null;
+        }
+
+        byte[] content;
+        try (InputStream inputStream = file.url().openStream()) {
+            content = inputStream.readAllBytes();
+        } catch (IOException e) {
+            cachedBytes.addAndGet(-reservedBytes);
+            throw new UncheckedIOException(e);
+        }
+
+        Map<String, byte[]> bodies = Map.of(IDENTITY, content);
+        StaticAsset asset = new StaticAsset(
+                file.config(),
+                contentTypeOf(file.config(), file.name()),
+                bodies,
+                etagOf(content),
+                reservedBytes
+        );
+
+        StaticAsset existing = assets.putIfAbsent(path, asset);
+        if (existing != null) {
+            cachedBytes.addAndGet(-reservedBytes);
+            return existing;
+        }
+
+        compressionExecutor.execute(() -> compressAsset(path, asset));
+
+        return asset;
+    }
+
+    private void compressAsset(String path, StaticAsset asset) {
+        byte[] content = asset.bodies().get(IDENTITY);
+
+        Map<String, byte[]> bodies = new LinkedHashMap<>();
+        long size = content.length;
+        for (Compressor compressor : compressors) {
+            byte[] compressed = compress(compressor, content);
+            if (compressed.length < content.length * MIN_COMPRESSION_RATIO) {
+                bodies.put(compressor.encoding(), compressed);
+                size += compressed.length;
+            }
+        }
+        bodies.put(IDENTITY, content);
+
+        StaticAsset compressedAsset = new StaticAsset(asset.config(), asset.contentType(), bodies, asset.etag(), size);
+        if (assets.replace(path, asset, compressedAsset)) {
+            cachedBytes.addAndGet(size - asset.size());
+        }
+
+        logger.debug(String.format(
+                "Cached static file %s (%d bytes, encodings: %s)",
+                path,
+                content.length,
+                String.join(", ", bodies.keySet())
+        ));
+    }
+
+    private void removeAsset(String path, StaticAsset asset) {
+        if (assets.remove(path, asset)) {
+            cachedBytes.addAndGet(-asset.size());
+        }
+    }
+
+    private StaticFile findFile(Context context) {
+        String path = context.path();
+        if (path.contains("..")) {
+            return null;
+        }
+
+        for (StaticFileConfig config : configs) {
+            if (!path.startsWith(config.hostedPath) || skips(config, context)) {
+                continue;
+            }
+
+            String relativePath = path.substring(config.hostedPath.length());
+            if (relativePath.startsWith("/")) {
+                relativePath = relativePath.substring(1);
+            }
+            if (relativePath.isEmpty() || relativePath.endsWith("/")) {
+                relativePath += "index.html";
+            }
+
+            try {
+                StaticFile file = config.location == Location.CLASSPATH
+                        ? findClasspathFile(config, relativePath)
+                        : findExternalFile(config, relativePath);
+                if (file != null) {
+                    return file;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        return null;
+    }
+
+    private static boolean skips(StaticFileConfig config, Context context) {
+        return config.skipFileFunction.invoke(context.req());
+    }
+
+    private static String classpathDirectory(StaticFileConfig config) {
+        String directory = config.directory;
+        while (directory.startsWith("/")) {
+            directory = directory.substring(1);
+        }
+        while (directory.endsWith("/")) {
+            directory = directory.substring(0, directory.length() - 1);
+        }
+
+        return directory;
+    }
+
+    private static StaticFile findClasspathFile(StaticFileConfig config, String relativePath) throws IOException {
+        URL url = Thread.currentThread().getContextClassLoader()
+                .getResource(classpathDirectory(config) + "/" + relativePath);
+        if (url == null || isDirectory(url)) {
+            return null;
+        }
+
+        return new StaticFile(config, relativePath, url, url.openConnection().getContentLengthLong());
+    }
+
+    private static boolean isDirectory(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return Files.isDirectory(Path.of(url.toURI()));
+            } catch (URISyntaxException e) {
+                return false;
+            }
+        }
+
+        return url.openConnection() instanceof JarURLConnection connection && connection.getJarEntry().isDirectory();
+    }
+
+    /**
+     * Finds a file in an external directory. Like Jetty, files reached through an alias, such as a symbolic link, are
+     * only served if the {@code aliasCheck} of the config allows them.
+     */
+    private static StaticFile findExternalFile(StaticFileConfig config, String relativePath) throws IOException {
+        Path directory = Path.of(config.directory).toAbsolutePath().normalize();
+        Path file = directory.resolve(relativePath).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            return null;
+        }
+
+        if (!file.toRealPath().equals(directory.toRealPath().resolve(directory.relativize(file)))) {
+            if (config.aliasCheck == null || !config.aliasCheck.check("/" + relativePath, Resource.newResource(file))) {
+                logger.debug(String.format("Not serving alias %s of static file %s", file, file.toRealPath()));
+                return null;
+            }
+        }
+
+        return new StaticFile(config, relativePath, file.toUri().toURL(), Files.size(file));
+    }
+
+    private static String contentTypeOf(StaticFileConfig config, String name) {
+        int extensionStart = name.lastIndexOf('.');
+        if (extensionStart >= 0) {
+            String contentType = config.mimeTypes.getMapping().get(name.substring(extensionStart + 1));
+            if (contentType != null) {
+                return contentType;
+            }
+        }
+
+        String contentType = MimeTypes.getDefaultMimeByExtension(name);
+
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    private static byte[] compress(Compressor compressor, byte[] content) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(content.length / 4);
+        try (OutputStream compressedStream = compressor.compress(outputStream)) {
+            compressedStream.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Picks the first representation, in order of preference, that the {@code Accept-Encoding} header allows.
+     */
+    private static String negotiateEncoding(StaticAsset asset, String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return IDENTITY;
+        }
+
+        Set<String> accepted = new HashSet<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] parameters = part.split(";");
+            String encoding = parameters[0].trim().toLowerCase(Locale.ROOT);
+
+            boolean refused = false;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        refused = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        refused = true;
+                    }
+                }
+            }
+
+            if (!refused) {
+                accepted.add(encoding);
+            }
+        }
+
+        for (String encoding : asset.bodies().keySet()) {
+            if (accepted.contains(encoding) || accepted.contains("*")) {
+                return encoding;
+            }
+        }
+
+        return IDENTITY;
+    }
+
+    private static String etagOf(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Every representation needs its own strong ETag
+    private static String etagOf(StaticAsset asset, String encoding) {
+        return IDENTITY.equals(encoding)
+                ? "\"" + asset.etag() + "\""
+                : "\"" + asset.etag() + "-" + encoding + "\"";
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
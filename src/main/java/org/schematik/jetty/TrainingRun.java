@@ -0,0 +1,169 @@
+package org.schematik.jetty;
+
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.schematik.Application;
+import org.schematik.api.RestApiConfig;
+import org.schematik.api.Route;
+import org.schematik.scheduler.JobSchedulerPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A training run exercises the started server once, so that a JVM started with {@code -XX:ArchiveClassesAtExit} dumps
+ * a dynamic class data sharing archive with the classes needed to serve requests. Later startups load those classes
+ * from the archive with {@code -XX:SharedArchiveFile}, instead of loading and verifying them again.
+ * <p>
+ * Every {@code GET}, {@code HEAD} and {@code OPTIONS} route is called once with placeholder path parameters. Whether the
+ * call succeeds does not matter, only that the classes on its path are loaded. A training run should not have side
+ * effects, so routes with other methods are only called, with an empty json body, if
+ * {@code cds.training.mutatingRoutes} is {@code true}, and the scheduled jobs only run if {@code cds.training.runJobs}
+ * is {@code true}. Their classes are loaded either way.
+ */
+public class TrainingRun {
+    static Logger logger = LoggerFactory.getLogger(TrainingRun.class);
+
+    public static final String ARGUMENT = "--training-run";
+
+    private static final Pattern pathParameterPattern = Pattern.compile("\\{[^}/]+}|<[^>/]+>");
+
+    private final int port;
+
+    public TrainingRun(int port) {
+        this.port = port;
+    }
+
+    public void run() {
+        boolean archiving = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-XX:ArchiveClassesAtExit")
+                        || argument.equals("-XX:+AutoCreateSharedArchive"));
+        if (!archiving) {
+            logger.warn("Training run started without -XX:ArchiveClassesAtExit, no class data sharing archive will be written.");
+        }
+
+        logger.info("Starting training run...");
+
+        exerciseRoutes();
+        exerciseScheduledJobs();
+
+        logger.info("Training run finished.");
+    }
+
+    private void exerciseRoutes() {
+        String authorization = Application.getProperty("cds.training.authorization");
+        boolean mutatingRoutes = Boolean.parseBoolean(
+                Application.getPropertyOrDefault("cds.training.mutatingRoutes", "false")
+        );
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        int exercisedRoutes = 0;
+        int skippedRoutes = 0;
+        for (Route route : RestApiConfig.getRoutes()) {
+            if (!mutatingRoutes && !isSafe(route.getHttpMethod())) {
+                skippedRoutes++;
+                continue;
+            }
+
+            String path = pathParameterPattern.matcher(route.getEndpoint()).replaceAll("1");
+            if (!path.startsWith("/")) {
+                path = "/" + path;
+            }
+
+            HttpRequest.BodyPublisher body = hasBody(route.getHttpMethod())
+                    ? HttpRequest.BodyPublishers.ofString("{}")
+                    : HttpRequest.BodyPublishers.noBody();
+
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .method(route.getHttpMethod(), body);
+            if (authorization != null) {
+                request.header("Authorization", authorization);
+            }
+
+            try {
+                HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+
+                logger.debug(String.format("Training run: %s returned %d", route, response.statusCode()));
+                exercisedRoutes++;
+            } catch (Exception e) {
+                logger.warn(String.format("Training run: %s failed: %s", route, e.getMessage()));
+            }
+        }
+
+        logger.info(String.format("Training run exercised %d routes.", exercisedRoutes));
+        if (skippedRoutes > 0) {
+            logger.info(String.format(
+                    "Training run skipped %d routes that may change data. Set cds.training.mutatingRoutes=true to call them.",
+                    skippedRoutes
+            ));
+        }
+    }
+
+    private void exerciseScheduledJobs() {
+        Scheduler scheduler = JobSchedulerPlugin.getScheduler();
+        if (scheduler == null) {
+            return;
+        }
+
+        boolean runJobs = Boolean.parseBoolean(Application.getPropertyOrDefault("cds.training.runJobs", "false"));
+
+        try {
+            Set<JobKey> jobKeys = scheduler.getJobKeys(GroupMatcher.anyJobGroup());
+            for (JobKey jobKey : jobKeys) {
+                Class<?> jobClass = scheduler.getJobDetail(jobKey).getJobClass();
+                Class.forName(jobClass.getName(), true, jobClass.getClassLoader());
+
+                if (runJobs) {
+                    scheduler.triggerJob(jobKey);
+                }
+            }
+
+            if (runJobs) {
+                awaitRunningJobs(scheduler);
+            }
+
+            logger.info(String.format("Training run exercised %d scheduled jobs.", jobKeys.size()));
+        } catch (SchedulerException | ClassNotFoundException | InterruptedException e) {
+            logger.warn("Training run: error while exercising scheduled jobs", e);
+        }
+    }
+
+    private static void awaitRunningJobs(Scheduler scheduler) throws SchedulerException, InterruptedException {
+        long timeoutMillis = Long.parseLong(Application.getPropertyOrDefault("cds.training.jobTimeoutMs", "30000"));
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+
+        // Give the triggered jobs a moment to be picked up before checking whether they are still running
+        Thread.sleep(500);
+        while (!scheduler.getCurrentlyExecutingJobs().isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                logger.warn("Training run: scheduled jobs are still running, not waiting for them any longer.");
+                return;
+            }
+
+            Thread.sleep(100);
+        }
+    }
+
+    private static boolean isSafe(String httpMethod) {
+        return httpMethod.equals("GET") || httpMethod.equals("HEAD") || httpMethod.equals("OPTIONS");
+    }
+
+    private static boolean hasBody(String httpMethod) {
+        return httpMethod.equals("POST") || httpMethod.equals("PUT") || httpMethod.equals("PATCH");
+    }
+}
@@ -0,0 +1,12 @@
+package org.schematik.metrics;
+
+import java.io.IOException;
+
+/**
+ * Something that exposes metrics on the metrics endpoint. Sources are registered in the {@link MetricsRegistry} and
+ * asked to write their current values whenever the endpoint is scraped. A source should write all samples of a metric
+ * before moving on to the next metric.
+ */
+public interface IMetricsSource {
+    void collect(IMetricsWriter writer) throws IOException;
+}
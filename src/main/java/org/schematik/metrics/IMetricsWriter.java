@@ -0,0 +1,16 @@
+package org.schematik.metrics;
+
+import java.io.IOException;
+
+/**
+ * Output format of the metrics endpoint. Labels are passed as name/value pairs.
+ */
+public interface IMetricsWriter {
+    double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    void counter(String name, String help, double value, String... labels) throws IOException;
+
+    void gauge(String name, String help, double value, String... labels) throws IOException;
+
+    void summary(String name, String help, LatencyHistogram histogram, String... labels) throws IOException;
+}
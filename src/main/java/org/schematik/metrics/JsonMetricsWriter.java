@@ -0,0 +1,59 @@
+package org.schematik.metrics;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes metrics as a JSON array with one object per sample.
+ */
+public class JsonMetricsWriter implements IMetricsWriter {
+    private final JsonWriter writer;
+
+    public JsonMetricsWriter(JsonWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void counter(String name, String help, double value, String... labels) throws IOException {
+        writeStart(name, "counter", labels);
+        writer.name("value").value(value);
+        writer.endObject();
+    }
+
+    @Override
+    public void gauge(String name, String help, double value, String... labels) throws IOException {
+        writeStart(name, "gauge", labels);
+        writer.name("value").value(value);
+        writer.endObject();
+    }
+
+    @Override
+    public void summary(String name, String help, LatencyHistogram histogram, String... labels) throws IOException {
+        writeStart(name, "summary", labels);
+        writer.name("count").value(histogram.getCount());
+        writer.name("sum").value(histogram.getSumSeconds());
+        writer.name("max").value(histogram.getMaxSeconds());
+
+        double[] values = histogram.quantileSeconds(QUANTILES);
+        writer.name("quantiles").beginObject();
+        for (int i = 0; i < QUANTILES.length; i++) {
+            writer.name(Double.toString(QUANTILES[i])).value(values[i]);
+        }
+        writer.endObject();
+
+        writer.endObject();
+    }
+
+    private void writeStart(String name, String type, String[] labels) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(name);
+        writer.name("type").value(type);
+
+        writer.name("labels").beginObject();
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            writer.name(labels[i]).value(labels[i + 1]);
+        }
+        writer.endObject();
+    }
+}
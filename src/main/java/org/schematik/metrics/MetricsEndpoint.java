@@ -0,0 +1,87 @@
+package org.schematik.metrics;
+
+import com.google.gson.stream.JsonWriter;
+import io.javalin.Javalin;
+import io.javalin.http.ContentType;
+import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.http.HttpStatus;
+import io.javalin.security.RouteRole;
+import org.schematik.Application;
+import org.schematik.api.IRestApiAuthenticationPlugin;
+import org.schematik.api.security.AuthenticatedPrincipal;
+import org.schematik.api.security.RouteRoleMask;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Admin endpoint that exposes the {@link MetricsRegistry} in the Prometheus text format or, with {@code ?format=json}
+ * or an {@code Accept: application/json} header, as JSON. If an authentication plugin is registered, callers need one
+ * of the roles listed in the {@code metrics.roles} property. The roles are registered with the route, the same as the
+ * roles of controller routes, so plugins that only implement {@code authenticate(Context)} see them.
+ */
+public class MetricsEndpoint {
+    static Logger logger = LoggerFactory.getLogger(MetricsEndpoint.class);
+
+    public static void register(Javalin app, IRestApiAuthenticationPlugin authenticationPlugin) {
+        String endpoint = Application.getPropertyOrDefault("metrics.endpoint", "/admin/metrics");
+
+        RouteRole[] roles = new RouteRole[0];
+        long roleMask = 0;
+        if (authenticationPlugin != null) {
+            roles = Arrays.stream(Application.getPropertyOrDefault("metrics.roles", "").split(","))
+                    .map(String::trim)
+                    .filter(roleName -> !roleName.isEmpty())
+                    .map(authenticationPlugin::roleFromString)
+                    .toArray(RouteRole[]::new);
+            roleMask = RouteRoleMask.register(roles);
+        }
+
+        long requiredRoleMask = roleMask;
+        app.get(endpoint, context -> handle(context, authenticationPlugin, requiredRoleMask), roles);
+
+        logger.info("Metrics are available at " + endpoint);
+    }
+
+    private static void handle(
+            Context context,
+            IRestApiAuthenticationPlugin authenticationPlugin,
+            long requiredRoleMask
+    ) throws Exception {
+        if (authenticationPlugin != null) {
+            AuthenticatedPrincipal principal = authenticationPlugin.authenticatePrincipal(context);
+            if (principal == null || !principal.hasAnyRole(requiredRoleMask)) {
+                context.status(principal == null ? HttpStatus.UNAUTHORIZED : HttpStatus.FORBIDDEN);
+                context.result("Forbidden: You don't have access to this resource!");
+                return;
+            }
+        }
+
+        String accept = context.header(Header.ACCEPT);
+        boolean json = "json".equals(context.queryParam("format"))
+                || (accept != null && accept.contains(ContentType.JSON));
+
+        if (json) {
+            context.contentType(ContentType.APPLICATION_JSON);
+
+            JsonWriter writer = new JsonWriter(new BufferedWriter(
+                    new OutputStreamWriter(context.outputStream(), StandardCharsets.UTF_8)
+            ));
+            writer.beginArray();
+            MetricsRegistry.collect(new JsonMetricsWriter(writer));
+            writer.endArray();
+            writer.flush();
+        } else {
+            StringBuilder output = new StringBuilder();
+            MetricsRegistry.collect(new PrometheusMetricsWriter(output));
+
+            context.contentType(PrometheusMetricsWriter.CONTENT_TYPE);
+            context.result(output.toString());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.schematik.metrics;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Holds the {@link IMetricsSource}s exposed on the metrics endpoint. Plugins can register their own sources.
+ */
+public class MetricsRegistry {
+    private static final List<IMetricsSource> sources = new CopyOnWriteArrayList<>();
+
+    public static void register(IMetricsSource source) {
+        sources.add(source);
+    }
+
+    public static void unregister(IMetricsSource source) {
+        sources.remove(source);
+    }
+
+    public static void collect(IMetricsWriter writer) throws IOException {
+        for (IMetricsSource source : sources) {
+            source.collect(writer);
+        }
+    }
+}
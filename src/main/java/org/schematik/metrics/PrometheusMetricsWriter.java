@@ -0,0 +1,92 @@
+package org.schematik.metrics;
+
+/**
+ * Writes metrics in the Prometheus text exposition format.
+ */
+public class PrometheusMetricsWriter implements IMetricsWriter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder output;
+    private String currentMetric;
+
+    public PrometheusMetricsWriter(StringBuilder output) {
+        this.output = output;
+    }
+
+    @Override
+    public void counter(String name, String help, double value, String... labels) {
+        writeHeader(name, help, "counter");
+        writeSample(name, labels, null, value);
+    }
+
+    @Override
+    public void gauge(String name, String help, double value, String... labels) {
+        writeHeader(name, help, "gauge");
+        writeSample(name, labels, null, value);
+    }
+
+    @Override
+    public void summary(String name, String help, LatencyHistogram histogram, String... labels) {
+        writeHeader(name, help, "summary");
+
+        double[] values = histogram.quantileSeconds(QUANTILES);
+        for (int i = 0; i < QUANTILES.length; i++) {
+            writeSample(name, labels, Double.toString(QUANTILES[i]), values[i]);
+        }
+        writeSample(name + "_sum", labels, null, histogram.getSumSeconds());
+        writeSample(name + "_count", labels, null, histogram.getCount());
+    }
+
+    private void writeHeader(String name, String help, String type) {
+        if (name.equals(currentMetric)) {
+            return;
+        }
+
+        currentMetric = name;
+        output.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        output.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private void writeSample(String name, String[] labels, String quantile, double value) {
+        output.append(name);
+
+        if (labels.length > 0 || quantile != null) {
+            output.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) {
+                    output.append(',');
+                }
+                writeLabel(labels[i], labels[i + 1]);
+            }
+            if (quantile != null) {
+                if (labels.length > 0) {
+                    output.append(',');
+                }
+                writeLabel("quantile", quantile);
+            }
+            output.append('}');
+        }
+
+        output.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            output.append((long) value);
+        } else {
+            output.append(value);
+        }
+        output.append('\n');
+    }
+
+    private void writeLabel(String name, String value) {
+        output.append(name).append("=\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> output.append("\\\\");
+                case '"' -> output.append("\\\"");
+                case '\n' -> output.append("\\n");
+                default -> output.append(c);
+            }
+        }
+        output.append('"');
+    }
+}
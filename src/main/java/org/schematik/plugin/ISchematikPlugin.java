@@ -1,5 +1,10 @@
 package org.schematik.plugin;
 
 public interface ISchematikPlugin {
+    /**
+     * Called once, after the plugins this plugin depends on have registered. Plugins that don't depend on each other
+     * may register at the same time on different threads, so routes should be added to the Javalin app while
+     * synchronized on it.
+     */
     void register();
 }
@@ -2,6 +2,7 @@ package org.schematik.plugin;
 
 import org.apache.commons.io.IOUtils;
 import org.schematik.Application;
+import org.schematik.StartupReport;
 import org.schematik.util.resource.FileResourceUtil;
 import org.schematik.util.xml.XMLParser;
 import org.schematik.util.xml.XmlElement;
@@ -9,27 +10,47 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class PluginConfig {
     private static Map<String, ISchematikPlugin> plugins;
 
     static Logger logger = LoggerFactory.getLogger(PluginConfig.class);
 
+    record PluginDefinition(String name, String className, List<String> dependencies) {
+    }
+
+    /**
+     * Instantiates and registers the enabled plugins from {@code plugins.config.xml}. A plugin is registered only after
+     * the plugins listed in its {@code depends-on} property, and otherwise in the order of the file. If
+     * {@code plugins.initialization.parallel} is {@code true}, plugins that don't depend on each other are registered in
+     * parallel. Either way, registration stops at the first plugin that fails to register.
+     */
     public static synchronized void initialize() {
         try {
             logger.info("Initializing plugins...");
-            PluginConfig.plugins = new HashMap<>();
+            PluginConfig.plugins = new ConcurrentHashMap<>();
 
             String pluginsConfigContent = IOUtils.toString(
                     FileResourceUtil.getFileFromResourceAsStream("plugins.config.xml"),
                     StandardCharsets.UTF_8
             );
             XmlElement xml = XMLParser.parse(pluginsConfigContent);
-            List<XmlElement> plugins = xml.getElements("plugin");
-            for (XmlElement plugin : plugins) {
+
+            Map<String, PluginDefinition> definitions = new LinkedHashMap<>();
+            for (XmlElement plugin : xml.getElements("plugin")) {
                 String pluginName = plugin.getProperty("name");
                 String className = plugin.getProperty("class");
                 boolean enabled = Boolean.parseBoolean(plugin.getProperty("enabled"));
@@ -39,20 +60,35 @@ public class PluginConfig {
                     continue;
                 }
 
-                if (PluginConfig.plugins.keySet().contains(pluginName)) {
+                if (definitions.containsKey(pluginName)) {
                     throw new RuntimeException(String.format("Duplicate implementation for plugin with name %s: %s!", pluginName, className));
                 }
 
-                Class<?> implementation = Class.forName(className);
-                ISchematikPlugin pluginImplementation = (ISchematikPlugin) implementation.getDeclaredConstructor().newInstance();
+                List<String> dependencies = new ArrayList<>();
+                if (plugin.hasProperty("depends-on")) {
+                    Arrays.stream(plugin.getProperty("depends-on").split(","))
+                            .map(String::trim)
+                            .filter(dependency -> !dependency.isEmpty())
+                            .forEach(dependencies::add);
+                }
+
+                definitions.put(pluginName, new PluginDefinition(pluginName, className, dependencies));
+            }
 
-                PluginConfig.plugins.put(pluginName, pluginImplementation);
-                pluginImplementation.register();
+            List<PluginDefinition> registrationOrder = sortByDependencies(definitions);
 
-                logger.info(String.format("Registered implementation for plugin with name %s: %s", pluginName, pluginImplementation));
+            boolean parallel = Boolean.parseBoolean(
+                    Application.getPropertyOrDefault("plugins.initialization.parallel", "false")
+            );
+            if (parallel && registrationOrder.size() > 1) {
+                registerInParallel(registrationOrder);
+            } else {
+                for (PluginDefinition definition : registrationOrder) {
+                    registerPlugin(definition);
+                }
             }
 
-            logger.info(String.format("Registered %d plugins.", plugins.size()));
+            logger.info(String.format("Registered %d plugins.", PluginConfig.plugins.size()));
         } catch (Exception e) {
             logger.error("Error while initializing plugins", e);
         }
@@ -61,4 +97,131 @@ public class PluginConfig {
     public static ISchematikPlugin getPluginImplementation(String id) {
         return plugins.getOrDefault(id, null);
     }
+
+    private static void registerPlugin(PluginDefinition definition) {
+        long startedAt = System.nanoTime();
+
+        ISchematikPlugin pluginImplementation;
+        try {
+            Class<?> implementation = Class.forName(definition.className());
+            pluginImplementation = (ISchematikPlugin) implementation.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(String.format(
+                    "Unable to instantiate plugin with name %s: %s!",
+                    definition.name(),
+                    definition.className()
+            ), e);
+        }
+
+        PluginConfig.plugins.put(definition.name(), pluginImplementation);
+        pluginImplementation.register();
+
+        StartupReport.recordPlugin(definition.name(), startedAt);
+
+        logger.info(String.format("Registered implementation for plugin with name %s: %s", definition.name(), pluginImplementation));
+    }
+
+    /**
+     * Registers every plugin as soon as all of its dependencies are registered. Like sequential registration, it stops
+     * at the first plugin that fails to register: the plugins that haven't started registering are skipped, and the
+     * failure is rethrown once the running registrations have finished.
+     */
+    private static void registerInParallel(List<PluginDefinition> registrationOrder) {
+        int threads = Integer.parseInt(Application.getPropertyOrDefault(
+                "plugins.initialization.threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())
+        ));
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(threads, registrationOrder.size())),
+                Thread.ofPlatform().name("schematik-plugin-", 0).factory()
+        );
+        try {
+            Map<String, CompletableFuture<Void>> registrations = new LinkedHashMap<>();
+            AtomicReference<RuntimeException> failure = new AtomicReference<>();
+            for (PluginDefinition definition : registrationOrder) {
+                CompletableFuture<?>[] dependencies = definition.dependencies().stream()
+                        .map(registrations::get)
+                        .toArray(CompletableFuture<?>[]::new);
+
+                registrations.put(
+                        definition.name(),
+                        CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                            if (failure.get() != null) {
+                                return;
+                            }
+
+                            try {
+                                registerPlugin(definition);
+                            } catch (RuntimeException e) {
+                                failure.compareAndSet(null, e);
+                                throw e;
+                            }
+                        }, executor)
+                );
+            }
+
+            for (CompletableFuture<Void> registration : registrations.values()) {
+                try {
+                    registration.join();
+                } catch (CompletionException e) {
+                    // The dependents of a failed plugin complete with its failure, which is rethrown below
+                }
+            }
+
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Orders the plugins so that every plugin comes after its dependencies, keeping the order of
+     * {@code plugins.config.xml} otherwise.
+     */
+    static List<PluginDefinition> sortByDependencies(Map<String, PluginDefinition> definitions) {
+        List<PluginDefinition> sorted = new ArrayList<>(definitions.size());
+        Set<String> visited = new HashSet<>();
+        for (PluginDefinition definition : definitions.values()) {
+            visit(definition, definitions, visited, new ArrayList<>(), sorted);
+        }
+
+        return sorted;
+    }
+
+    private static void visit(
+            PluginDefinition definition,
+            Map<String, PluginDefinition> definitions,
+            Set<String> visited,
+            List<String> path,
+            List<PluginDefinition> sorted
+    ) {
+        if (visited.contains(definition.name())) {
+            return;
+        }
+        if (path.contains(definition.name())) {
+            path.add(definition.name());
+            throw new RuntimeException("Circular plugin dependency: " + String.join(" -> ", path));
+        }
+
+        path.add(definition.name());
+        for (String dependency : definition.dependencies()) {
+            PluginDefinition dependencyDefinition = definitions.get(dependency);
+            if (dependencyDefinition == null) {
+                throw new RuntimeException(String.format(
+                        "Plugin with name %s depends on %s, which is not enabled for the current environment!",
+                        definition.name(),
+                        dependency
+                ));
+            }
+
+            visit(dependencyDefinition, definitions, visited, path, sorted);
+        }
+        path.remove(path.size() - 1);
+
+        visited.add(definition.name());
+        sorted.add(definition);
+    }
 }
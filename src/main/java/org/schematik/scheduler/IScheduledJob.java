@@ -23,6 +23,9 @@ public interface IScheduledJob extends Job {
         } catch (Exception e) {
             logger.error(e.getMessage(), e);
             exitJob();
+
+            // Report the failure to the scheduler, so that its listeners see it
+            throw new JobExecutionException(e);
         }
     }
 
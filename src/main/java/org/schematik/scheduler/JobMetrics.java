@@ -0,0 +1,89 @@
+package org.schematik.scheduler;
+
+import org.schematik.metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution counters and histograms of a single scheduled job. All updates are lock-free.
+ */
+public class JobMetrics {
+    private final String job;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder misfires = new LongAdder();
+    private final LongAdder overlaps = new LongAdder();
+    private final AtomicInteger running = new AtomicInteger();
+
+    private final LatencyHistogram startLag = new LatencyHistogram();
+    private final LatencyHistogram duration = new LatencyHistogram();
+
+    public JobMetrics(String job) {
+        this.job = job;
+    }
+
+    /**
+     * Marks the start of an execution that was scheduled {@code lagMillis} milliseconds ago and returns its start time,
+     * to be passed to {@link #executionFinished(long, boolean)}.
+     */
+    public long executionStarted(long lagMillis) {
+        if (running.getAndIncrement() > 0) {
+            overlaps.increment();
+        }
+        startLag.record(lagMillis * 1_000_000);
+
+        return System.nanoTime();
+    }
+
+    public void executionFinished(long startedAt, boolean failed) {
+        running.decrementAndGet();
+        duration.record(System.nanoTime() - startedAt);
+
+        if (failed) {
+            failures.increment();
+        } else {
+            successes.increment();
+        }
+    }
+
+    public void recordMisfire() {
+        misfires.increment();
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public long getSuccesses() {
+        return successes.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getMisfires() {
+        return misfires.sum();
+    }
+
+    /**
+     * Returns the number of executions that started while another execution of the job was still running.
+     */
+    public long getOverlaps() {
+        return overlaps.sum();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public LatencyHistogram getStartLag() {
+        return startLag;
+    }
+
+    public LatencyHistogram getDuration() {
+        return duration;
+    }
+}
@@ -3,8 +3,11 @@ package org.schematik.scheduler;
 import org.apache.commons.io.IOUtils;
 import org.quartz.*;
 import org.quartz.impl.StdSchedulerFactory;
+import org.quartz.impl.matchers.GroupMatcher;
 import org.schematik.Application;
+import org.schematik.metrics.MetricsRegistry;
 import org.schematik.plugin.ISchematikPlugin;
+import org.schematik.scheduler.partition.PartitionedJobMetrics;
 import org.schematik.util.resource.FileResourceUtil;
 import org.schematik.util.xml.XMLParser;
 import org.schematik.util.xml.XmlElement;
@@ -14,14 +17,18 @@ import org.slf4j.LoggerFactory;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 public class JobSchedulerPlugin implements ISchematikPlugin {
     static Logger logger = LoggerFactory.getLogger(JobSchedulerPlugin.class);
 
     static Scheduler scheduler;
 
+    static SchedulerMetrics schedulerMetrics;
+
     @Override
     public void register() {
         try {
@@ -29,17 +36,16 @@ public class JobSchedulerPlugin implements ISchematikPlugin {
 
             Properties props = new Properties();
             props.setProperty("org.quartz.scheduler.instanceName", "SchematikScheduler");
-            props.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
-            props.setProperty(
-                    "org.quartz.threadPool.threadCount",
-                    Application.getPropertyOrDefault("scheduler.thread.count", "10")
-            );
-            props.setProperty("org.quartz.threadPool.threadPriority", "5");
+            configureThreadPool(props);
+            JobStoreConfig.configure(props);
 
             scheduler = new StdSchedulerFactory(props).getScheduler();
-            scheduler.start();
 
-            int numberOfTasks = 0;
+            schedulerMetrics = new SchedulerMetrics(scheduler);
+            scheduler.getListenerManager().addJobListener(schedulerMetrics);
+            scheduler.getListenerManager().addTriggerListener(schedulerMetrics);
+            MetricsRegistry.register(schedulerMetrics);
+            MetricsRegistry.register(new PartitionedJobMetrics());
 
             String schedulerConfigContent = IOUtils.toString(
                     FileResourceUtil.getFileFromResourceAsStream("scheduler.config.xml"),
@@ -48,6 +54,15 @@ public class JobSchedulerPlugin implements ISchematikPlugin {
             XmlElement xml = XMLParser.parse(schedulerConfigContent);
 
             List<XmlElement> scheduledTasks = xml.getElements("task");
+
+            if (JobStoreConfig.isPersistent()) {
+                deleteRemovedJobs(scheduledTasks);
+            }
+
+            scheduler.start();
+
+            int numberOfTasks = 0;
+
             for (XmlElement task : scheduledTasks) {
                 String implementationClassString = task.getProperty("class");
                 Class<?> implementation = Class.forName(implementationClassString);
@@ -105,7 +120,7 @@ public class JobSchedulerPlugin implements ISchematikPlugin {
                     continue;
                 }
 
-                scheduler.scheduleJob(jobDetail, trigger);
+                scheduleJob(jobDetail, trigger);
 
                 numberOfTasks++;
             }
@@ -116,6 +131,109 @@ public class JobSchedulerPlugin implements ISchematikPlugin {
         }
     }
 
+    /**
+     * Deletes the jobs that a persistent job store kept from an earlier start, but that are no longer in
+     * {@code scheduler.config.xml}. They would keep firing otherwise, and fail if their class is gone. Only the jobs of
+     * the default group are deleted, since those are the ones scheduled from the file.
+     */
+    private static void deleteRemovedJobs(List<XmlElement> scheduledTasks) throws SchedulerException {
+        Set<String> configuredJobs = new HashSet<>();
+        for (XmlElement task : scheduledTasks) {
+            configuredJobs.add(task.getProperty("class"));
+        }
+
+        for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(JobKey.DEFAULT_GROUP))) {
+            if (!configuredJobs.contains(jobKey.getName()) && scheduler.deleteJob(jobKey)) {
+                logger.info(String.format(
+                        "Deleted job %s from the job store, since it is no longer in scheduler.config.xml",
+                        jobKey.getName()
+                ));
+            }
+        }
+    }
+
+    /**
+     * Schedules a job unless a persistent job store already has it with the same schedule. Replacing the trigger would
+     * reset its next fire time and misfire state on every restart of every node, so an existing trigger is only
+     * replaced when its schedule has changed.
+     */
+    private static void scheduleJob(JobDetail jobDetail, Trigger trigger) throws SchedulerException {
+        Trigger existingTrigger = scheduler.getTrigger(trigger.getKey());
+        if (existingTrigger == null) {
+            try {
+                scheduler.scheduleJob(jobDetail, trigger);
+            } catch (ObjectAlreadyExistsException e) {
+                // Another node of the cluster scheduled it first
+                logger.debug(String.format("Job %s has already been scheduled by another node", jobDetail.getKey()));
+            }
+            return;
+        }
+
+        if (hasSameSchedule(existingTrigger, trigger)) {
+            logger.debug(String.format("Keeping the existing trigger of job %s", jobDetail.getKey()));
+            return;
+        }
+
+        scheduler.addJob(jobDetail, true);
+        scheduler.rescheduleJob(trigger.getKey(), trigger);
+        logger.info(String.format("Replaced the trigger of job %s, since its schedule has changed", jobDetail.getKey()));
+    }
+
+    private static boolean hasSameSchedule(Trigger existingTrigger, Trigger trigger) {
+        if (existingTrigger instanceof CronTrigger existing && trigger instanceof CronTrigger updated) {
+            return existing.getCronExpression().equals(updated.getCronExpression());
+        }
+
+        if (existingTrigger instanceof SimpleTrigger existing && trigger instanceof SimpleTrigger updated) {
+            return existing.getRepeatInterval() == updated.getRepeatInterval()
+                    && existing.getRepeatCount() == updated.getRepeatCount();
+        }
+
+        return false;
+    }
+
+    /**
+     * Configures the Quartz thread pool according to the {@code scheduler.thread.*} properties. In {@code bounded} mode
+     * jobs run on a fixed pool of {@code scheduler.thread.count} platform threads. In {@code virtual} mode every job runs
+     * on its own virtual thread, at most {@code scheduler.thread.maxConcurrency} at a time if that is set.
+     */
+    static void configureThreadPool(Properties props) {
+        String mode = Application.getPropertyOrDefault("scheduler.thread.mode", "bounded");
+        boolean virtual = "virtual".equalsIgnoreCase(mode);
+        if (!virtual && !"bounded".equalsIgnoreCase(mode)) {
+            logger.warn(String.format("Unknown scheduler.thread.mode \"%s\", falling back to bounded.", mode));
+        }
+
+        if (virtual) {
+            props.setProperty("org.quartz.threadPool.class", VirtualThreadPool.class.getName());
+            props.setProperty(
+                    "org.quartz.threadPool.maxConcurrency",
+                    Application.getPropertyOrDefault("scheduler.thread.maxConcurrency", "0")
+            );
+        } else {
+            props.setProperty("org.quartz.threadPool.class", "org.quartz.simpl.SimpleThreadPool");
+            props.setProperty(
+                    "org.quartz.threadPool.threadCount",
+                    Application.getPropertyOrDefault("scheduler.thread.count", "10")
+            );
+            props.setProperty("org.quartz.threadPool.threadPriority", "5");
+        }
+    }
+
+    /**
+     * Returns the Quartz scheduler, or {@code null} if the plugin has not been registered.
+     */
+    public static Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the execution metrics of the scheduled jobs, or {@code null} if the plugin has not been registered.
+     */
+    public static SchedulerMetrics getSchedulerMetrics() {
+        return schedulerMetrics;
+    }
+
     public static void pause(Class<IScheduledJob> scheduledTaskClass) {
         if (scheduler != null) {
             try {
@@ -0,0 +1,253 @@
+package org.schematik.scheduler;
+
+import org.apache.commons.io.IOUtils;
+import org.schematik.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Configures the Quartz job store according to the {@code scheduler.jobStore.*} properties. In {@code memory} mode, the
+ * default, jobs and triggers are kept in memory by every node. In {@code jdbc} mode they are kept in a database, which
+ * preserves them and their misfire state across restarts. A clustered JDBC job store is shared by all nodes that use
+ * the same database: every trigger fires on only one of them, the nodes take turns acquiring triggers, and the jobs of
+ * a node that stops checking in are recovered by the others.
+ * <p>
+ * The default database is an embedded H2 database file, which the processes on one host can share. Unless
+ * {@code scheduler.jobStore.initializeSchema} is {@code false}, the Quartz tables are created on startup if they don't
+ * exist yet, from the script that Quartz ships for the database.
+ */
+public class JobStoreConfig {
+    static Logger logger = LoggerFactory.getLogger(JobStoreConfig.class);
+
+    private static final String DATA_SOURCE = "schematik";
+    private static final String SCRIPT_DIRECTORY = "org/quartz/impl/jdbcjobstore/";
+    private static final long SCHEMA_WAIT_MILLIS = 30000;
+
+    public static boolean isPersistent() {
+        return "jdbc".equalsIgnoreCase(Application.getPropertyOrDefault("scheduler.jobStore.mode", "memory"));
+    }
+
+    public static void configure(Properties props) throws Exception {
+        String mode = Application.getPropertyOrDefault("scheduler.jobStore.mode", "memory");
+        if (!isPersistent()) {
+            if (!"memory".equalsIgnoreCase(mode)) {
+                logger.warn(String.format("Unknown scheduler.jobStore.mode \"%s\", falling back to memory.", mode));
+            }
+            return;
+        }
+
+        String url = getUrl();
+        String driver = getDriver();
+        String user = getUser();
+        String password = getPassword();
+        String tablePrefix = Application.getPropertyOrDefault("scheduler.jobStore.tablePrefix", "QRTZ_");
+        boolean clustered = Boolean.parseBoolean(
+                Application.getPropertyOrDefault("scheduler.jobStore.clustered", "true")
+        );
+
+        props.setProperty("org.quartz.scheduler.instanceId", "AUTO");
+        props.setProperty("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+        props.setProperty("org.quartz.jobStore.driverDelegateClass", Application.getPropertyOrDefault(
+                "scheduler.jobStore.driverDelegate",
+                defaultDriverDelegate(url)
+        ));
+        props.setProperty("org.quartz.jobStore.dataSource", DATA_SOURCE);
+        props.setProperty("org.quartz.jobStore.tablePrefix", tablePrefix);
+        props.setProperty("org.quartz.jobStore.isClustered", String.valueOf(clustered));
+        props.setProperty(
+                "org.quartz.jobStore.clusterCheckinInterval",
+                Application.getPropertyOrDefault("scheduler.jobStore.clusterCheckinIntervalMs", "15000")
+        );
+        props.setProperty(
+                "org.quartz.jobStore.misfireThreshold",
+                Application.getPropertyOrDefault("scheduler.jobStore.misfireThresholdMs", "60000")
+        );
+        // Triggers acquired in batches must be acquired under the lock, or two nodes could fire the same trigger
+        props.setProperty("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+
+        props.setProperty("org.quartz.dataSource." + DATA_SOURCE + ".driver", driver);
+        props.setProperty("org.quartz.dataSource." + DATA_SOURCE + ".URL", url);
+        props.setProperty("org.quartz.dataSource." + DATA_SOURCE + ".user", user);
+        props.setProperty("org.quartz.dataSource." + DATA_SOURCE + ".password", password);
+        props.setProperty(
+                "org.quartz.dataSource." + DATA_SOURCE + ".maxConnections",
+                Application.getPropertyOrDefault("scheduler.jobStore.maxConnections", "10")
+        );
+
+        if (Boolean.parseBoolean(Application.getPropertyOrDefault("scheduler.jobStore.initializeSchema", "true"))) {
+            Class.forName(driver);
+            initializeSchema(url, user, password, tablePrefix);
+        }
+
+        logger.info(String.format("Using %s JDBC job store at %s", clustered ? "clustered" : "non-clustered", url));
+    }
+
+    /**
+     * Opens a connection to the database of the JDBC job store, for data that belongs next to the scheduled jobs.
+     */
+    public static Connection getConnection() throws SQLException {
+        try {
+            Class.forName(getDriver());
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("JDBC driver not found: " + getDriver(), e);
+        }
+
+        return DriverManager.getConnection(getUrl(), getUser(), getPassword());
+    }
+
+    private static String getUrl() {
+        return Application.getPropertyOrDefault(
+                "scheduler.jobStore.url",
+                "jdbc:h2:./data/schematik-scheduler;AUTO_SERVER=TRUE"
+        );
+    }
+
+    private static String getDriver() {
+        return Application.getPropertyOrDefault("scheduler.jobStore.driver", "org.h2.Driver");
+    }
+
+    private static String getUser() {
+        return Application.getPropertyOrDefault("scheduler.jobStore.user", "sa");
+    }
+
+    private static String getPassword() {
+        return Application.getPropertyOrDefault("scheduler.jobStore.password", "");
+    }
+
+    private static String defaultDriverDelegate(String url) {
+        if (url.startsWith("jdbc:postgresql:")) {
+            return "org.quartz.impl.jdbcjobstore.PostgreSQLDelegate";
+        }
+
+        return "org.quartz.impl.jdbcjobstore.StdJDBCDelegate";
+    }
+
+    private static String schemaScript(String url) {
+        String script = Application.getProperty("scheduler.jobStore.schemaScript");
+        if (script != null && !script.isBlank()) {
+            return script;
+        }
+
+        if (url.startsWith("jdbc:h2:")) {
+            return SCRIPT_DIRECTORY + "tables_h2.sql";
+        } else if (url.startsWith("jdbc:mysql:") || url.startsWith("jdbc:mariadb:")) {
+            return SCRIPT_DIRECTORY + "tables_mysql_innodb.sql";
+        } else if (url.startsWith("jdbc:postgresql:")) {
+            return SCRIPT_DIRECTORY + "tables_postgres.sql";
+        }
+
+        return null;
+    }
+
+    /**
+     * Creates the Quartz tables if the database doesn't have them. All nodes of a cluster can start at once, so a node
+     * that fails to create the tables waits for another node to finish creating them. The scripts of some databases
+     * start by dropping the tables, which could drop the tables another node has just created (and MySQL commits every
+     * statement that changes the schema), so the {@code DROP} statements are left out.
+     */
+    private static void initializeSchema(String url, String user, String password, String tablePrefix)
+            throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            if (hasTable(connection, tablePrefix + "LOCKS")) {
+                return;
+            }
+
+            String script = schemaScript(url);
+            if (script == null) {
+                logger.warn(String.format(
+                        "No Quartz schema script is known for %s. Create the tables or set scheduler.jobStore.schemaScript.",
+                        url
+                ));
+                return;
+            }
+
+            logger.info(String.format("Creating the Quartz tables from %s", script));
+
+            String schema;
+            try (InputStream inputStream = JobStoreConfig.class.getClassLoader().getResourceAsStream(script)) {
+                if (inputStream == null) {
+                    throw new IllegalArgumentException("Quartz schema script not found: " + script);
+                }
+                schema = IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+            }
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : statements(schema)) {
+                    statement.execute(sql.replace("QRTZ_", tablePrefix));
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                if (!awaitTable(connection, tablePrefix + "LOCKS")) {
+                    throw e;
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    private static boolean awaitTable(Connection connection, String table) throws SQLException, InterruptedException {
+        long deadline = System.currentTimeMillis() + SCHEMA_WAIT_MILLIS;
+        while (!hasTable(connection, table)) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+
+            Thread.sleep(500);
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the database has a table, whichever case it stores unquoted names in.
+     */
+    public static boolean hasTable(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] { table, table.toUpperCase(Locale.ROOT), table.toLowerCase(Locale.ROOT) }) {
+            try (ResultSet tables = metaData.getTables(null, null, name, null)) {
+                if (tables.next()) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Splits a script into its statements, leaving out comments, {@code DROP} statements and transaction control,
+     * which is done here.
+     */
+    private static String[] statements(String script) {
+        StringBuilder withoutComments = new StringBuilder();
+        for (String line : script.split("\n")) {
+            String trimmed = line.trim();
+            if (!trimmed.startsWith("--") && !trimmed.startsWith("#")) {
+                withoutComments.append(line).append('\n');
+            }
+        }
+
+        return Arrays.stream(withoutComments.toString().split(";"))
+                .map(String::trim)
+                .filter(sql -> !sql.isEmpty())
+                .filter(sql -> !sql.equalsIgnoreCase("commit"))
+                .filter(sql -> !sql.toUpperCase(Locale.ROOT).startsWith("DROP"))
+                .toArray(String[]::new);
+    }
+}
@@ -0,0 +1,174 @@
+package org.schematik.scheduler;
+
+import org.quartz.*;
+import org.schematik.metrics.IMetricsSource;
+import org.schematik.metrics.IMetricsWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Quartz listener that records the {@link JobMetrics} of every job and exposes them on the metrics endpoint. Jobs are
+ * identified by the name of their job key, which for the jobs in {@code scheduler.config.xml} is their class name.
+ * <p>
+ * The start lag of an execution is the time from its scheduled fire time until the job starts running, which includes
+ * the time it waited for a free scheduler thread. A lag that keeps growing, or misfires, mean that
+ * {@code scheduler.thread.count} is too low for the jobs.
+ */
+public class SchedulerMetrics implements IMetricsSource, JobListener, TriggerListener {
+    static Logger logger = LoggerFactory.getLogger(SchedulerMetrics.class);
+
+    private static final String STARTED_AT = SchedulerMetrics.class.getName() + ".startedAt";
+
+    private final Map<String, JobMetrics> jobs = new ConcurrentHashMap<>();
+    private final Scheduler scheduler;
+
+    public SchedulerMetrics(Scheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    public JobMetrics getJobMetrics(JobKey jobKey) {
+        return jobs.computeIfAbsent(jobKey.getName(), JobMetrics::new);
+    }
+
+    public Collection<JobMetrics> getJobMetrics() {
+        return jobs.values();
+    }
+
+    @Override
+    public String getName() {
+        return "SchematikSchedulerMetrics";
+    }
+
+    @Override
+    public void jobToBeExecuted(JobExecutionContext context) {
+        long lagMillis = context.getScheduledFireTime() != null
+                ? Math.max(0, System.currentTimeMillis() - context.getScheduledFireTime().getTime())
+                : 0;
+
+        context.put(STARTED_AT, getJobMetrics(context.getJobDetail().getKey()).executionStarted(lagMillis));
+    }
+
+    @Override
+    public void jobExecutionVetoed(JobExecutionContext context) {
+    }
+
+    @Override
+    public void jobWasExecuted(JobExecutionContext context, JobExecutionException jobException) {
+        Object startedAt = context.get(STARTED_AT);
+        if (startedAt == null) {
+            return;
+        }
+
+        getJobMetrics(context.getJobDetail().getKey()).executionFinished((Long) startedAt, jobException != null);
+    }
+
+    @Override
+    public void triggerFired(Trigger trigger, JobExecutionContext context) {
+    }
+
+    @Override
+    public boolean vetoJobExecution(Trigger trigger, JobExecutionContext context) {
+        return false;
+    }
+
+    @Override
+    public void triggerMisfired(Trigger trigger) {
+        getJobMetrics(trigger.getJobKey()).recordMisfire();
+    }
+
+    @Override
+    public void triggerComplete(
+            Trigger trigger,
+            JobExecutionContext context,
+            Trigger.CompletedExecutionInstruction triggerInstructionCode
+    ) {
+    }
+
+    @Override
+    public void collect(IMetricsWriter writer) throws IOException {
+        try {
+            // A virtual thread pool without a concurrency limit reports Integer.MAX_VALUE, which sizes nothing
+            int threadPoolSize = scheduler.getMetaData().getThreadPoolSize();
+            if (threadPoolSize < Integer.MAX_VALUE) {
+                writer.gauge(
+                        "schematik_scheduler_threads",
+                        "Size of the scheduler thread pool, or the concurrency limit of virtual threads.",
+                        threadPoolSize
+                );
+            }
+        } catch (SchedulerException e) {
+            logger.warn("Error while reading the scheduler metadata", e);
+        }
+
+        writer.gauge(
+                "schematik_scheduler_running_jobs",
+                "Executions of all jobs that are currently running.",
+                jobs.values().stream().mapToInt(JobMetrics::getRunning).sum()
+        );
+
+        for (JobMetrics job : jobs.values()) {
+            writer.counter(
+                    "schematik_job_executions_total",
+                    "Executions of the job, by outcome.",
+                    job.getSuccesses(),
+                    "job", job.getJob(), "outcome", "success"
+            );
+            writer.counter(
+                    "schematik_job_executions_total",
+                    "Executions of the job, by outcome.",
+                    job.getFailures(),
+                    "job", job.getJob(), "outcome", "failure"
+            );
+        }
+
+        for (JobMetrics job : jobs.values()) {
+            writer.counter(
+                    "schematik_job_misfires_total",
+                    "Triggers of the job that misfired.",
+                    job.getMisfires(),
+                    "job", job.getJob()
+            );
+        }
+
+        for (JobMetrics job : jobs.values()) {
+            writer.counter(
+                    "schematik_job_overlapping_executions_total",
+                    "Executions of the job that started while another execution of it was running.",
+                    job.getOverlaps(),
+                    "job", job.getJob()
+            );
+        }
+
+        for (JobMetrics job : jobs.values()) {
+            writer.gauge(
+                    "schematik_job_running",
+                    "Executions of the job that are currently running.",
+                    job.getRunning(),
+                    "job", job.getJob()
+            );
+        }
+
+        for (JobMetrics job : jobs.values()) {
+            writer.summary(
+                    "schematik_job_start_lag_seconds",
+                    "Time from the scheduled fire time of the job until it started running.",
+                    job.getStartLag(),
+                    "job", job.getJob()
+            );
+        }
+
+        for (JobMetrics job : jobs.values()) {
+            writer.summary(
+                    "schematik_job_duration_seconds",
+                    "Time spent running the job.",
+                    job.getDuration(),
+                    "job", job.getJob()
+            );
+        }
+    }
+}
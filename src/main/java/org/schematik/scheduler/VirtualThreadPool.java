@@ -0,0 +1,144 @@
+package org.schematik.scheduler;
+
+import org.quartz.SchedulerConfigException;
+import org.quartz.spi.ThreadPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quartz thread pool that runs every job on a new virtual thread, so jobs that mostly wait on I/O don't hold a platform
+ * thread and don't delay each other. If {@code maxConcurrency} is set, at most that many jobs run at the same time, and
+ * the scheduler waits for a running job to finish before firing more triggers, as it does with a fixed size pool.
+ */
+public class VirtualThreadPool implements ThreadPool {
+    static Logger logger = LoggerFactory.getLogger(VirtualThreadPool.class);
+
+    private int maxConcurrency;
+    private String instanceName = "SchematikScheduler";
+
+    private ExecutorService executor;
+    private Semaphore permits;
+
+    /**
+     * Limits the number of jobs that run at the same time. Zero or less means no limit.
+     */
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void initialize() throws SchedulerConfigException {
+        executor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name(instanceName + "-job-", 0).factory()
+        );
+        if (maxConcurrency > 0) {
+            permits = new Semaphore(maxConcurrency);
+        }
+
+        logger.info(String.format(
+                "Running scheduled jobs on virtual threads (%s)",
+                maxConcurrency > 0 ? "at most " + maxConcurrency + " at a time" : "no concurrency limit"
+        ));
+    }
+
+    @Override
+    public boolean runInThread(Runnable runnable) {
+        if (runnable == null) {
+            return false;
+        }
+
+        if (permits != null) {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    if (permits != null) {
+                        permits.release();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // The pool has been shut down
+            if (permits != null) {
+                permits.release();
+            }
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Waits until a job can be started. Only the scheduler thread starts jobs, so the permits returned are still
+     * available when it starts them.
+     */
+    @Override
+    public int blockForAvailableThreads() {
+        if (permits == null) {
+            return Integer.MAX_VALUE;
+        }
+
+        try {
+            permits.acquire();
+            permits.release();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+
+        return permits.availablePermits();
+    }
+
+    @Override
+    public void shutdown(boolean waitForJobsToComplete) {
+        if (executor == null) {
+            return;
+        }
+
+        executor.shutdown();
+        if (!waitForJobsToComplete) {
+            return;
+        }
+
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                logger.debug("Waiting for running scheduled jobs to complete...");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int getPoolSize() {
+        return maxConcurrency > 0 ? maxConcurrency : Integer.MAX_VALUE;
+    }
+
+    @Override
+    public void setInstanceId(String instanceId) {
+    }
+
+    @Override
+    public void setInstanceName(String instanceName) {
+        this.instanceName = instanceName;
+    }
+}
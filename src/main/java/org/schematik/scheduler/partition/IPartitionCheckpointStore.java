@@ -0,0 +1,34 @@
+package org.schematik.scheduler.partition;
+
+import java.util.Set;
+
+/**
+ * Stores which partitions of a partitioned job have completed, so that a failed run can be resumed. A job has one set
+ * of checkpoints at a time, which belongs to a run key and partition count.
+ */
+public interface IPartitionCheckpointStore {
+    /**
+     * Called before a run of the job reads its checkpoints, e.g. to open the connection the run's checkpoints are
+     * written with. Every call is followed by a call to {@link #runFinished(String)}.
+     */
+    default void runStarted(String job) {
+    }
+
+    /**
+     * Called when a run of the job has finished, whether its partitions completed or not.
+     */
+    default void runFinished(String job) {
+    }
+
+    /**
+     * Returns the completed partitions of the job. Checkpoints of another run key or partition count are dropped.
+     */
+    Set<Integer> getCompletedPartitions(String job, String runKey, int partitionCount);
+
+    void partitionCompleted(String job, String runKey, int partitionCount, int partition);
+
+    /**
+     * Drops the checkpoints of the job, once all of its partitions have completed.
+     */
+    void clear(String job);
+}
@@ -0,0 +1,61 @@
+package org.schematik.scheduler.partition;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.schematik.scheduler.IScheduledJob;
+
+/**
+ * A scheduled job whose work is split into partitions that run in parallel. The job declares how many partitions there
+ * are and processes one partition at a time in {@link #processPartition(int, int, PartitionProgress)}, which is called
+ * concurrently for different partitions, so it must only share thread-safe state between them.
+ * <p>
+ * Completed partitions are checkpointed. If some partitions fail, the run fails, and the next run with the same
+ * {@link #getRunKey()} only processes the partitions that haven't completed yet.
+ * <p>
+ * A run doesn't start while the previous run of the same job is still running, on this node or, with the JDBC job
+ * store, on another one, since both would process the same partitions.
+ */
+@DisallowConcurrentExecution
+public interface IPartitionedScheduledJob extends IScheduledJob {
+    /**
+     * Returns the number of partitions of the next run. Partitions are identified by their index, so the same index
+     * must stand for the same part of the input until a run with the same run key has completed.
+     */
+    int getPartitionCount();
+
+    /**
+     * Processes one partition of the input. Reporting progress is optional.
+     */
+    void processPartition(int partition, int partitionCount, PartitionProgress progress) throws Exception;
+
+    /**
+     * Returns how many partitions run at the same time. Defaults to the number of available processors.
+     */
+    default int getParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Returns {@code true} if the partitions should run on virtual threads, which suits partitions that mostly wait on
+     * I/O. Otherwise they run on a fork-join pool, which suits partitions that keep a processor busy.
+     */
+    default boolean runsOnVirtualThreads() {
+        return false;
+    }
+
+    /**
+     * Identifies the input of a run, such as the business date it processes. Checkpoints are only used by runs with the
+     * same run key, so a run over new input processes all partitions even if the previous run failed.
+     */
+    default String getRunKey() {
+        return "";
+    }
+
+    default IPartitionCheckpointStore getCheckpointStore() {
+        return PartitionedJobExecutor.getDefaultCheckpointStore();
+    }
+
+    @Override
+    default void doJob() {
+        PartitionedJobExecutor.execute(this);
+    }
+}
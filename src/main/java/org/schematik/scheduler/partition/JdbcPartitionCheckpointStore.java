@@ -0,0 +1,263 @@
+package org.schematik.scheduler.partition;
+
+import org.schematik.scheduler.JobStoreConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the checkpoints of partitioned jobs in the database of the JDBC job store, so that failed runs are resumed
+ * after a restart, and by whichever node of the cluster runs the job next. The table is created on first use.
+ * <p>
+ * A run holds one connection from its start to its end, and its partitions write their checkpoints with it one at a
+ * time, so checkpointing doesn't open a connection per partition. A connection that has been idle for a while is
+ * validated before it is used again, and reopened if the database has closed it, since long runs can outlive the idle
+ * timeout of the database.
+ */
+public class JdbcPartitionCheckpointStore implements IPartitionCheckpointStore {
+    private static final String TABLE = "SCHEMATIK_PARTITION_CHECKPOINTS";
+    private static final String INSERT_CHECKPOINT =
+            "INSERT INTO " + TABLE + " (JOB_NAME, RUN_KEY, PARTITION_COUNT, PARTITION_INDEX) VALUES (?, ?, ?, ?)";
+
+    private static final long VALIDATION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private volatile boolean tableCreated;
+
+    private final Map<String, RunConnection> runConnections = new ConcurrentHashMap<>();
+
+    /**
+     * The connection of a run. It can't be used by several threads at once, so its users synchronize on it.
+     */
+    private class RunConnection {
+        private Connection connection;
+        private PreparedStatement insertCheckpoint;
+        private long lastUsedAt;
+
+        RunConnection() throws SQLException {
+            open();
+        }
+
+        Connection connection() throws SQLException {
+            long now = System.nanoTime();
+            if (now - lastUsedAt > VALIDATION_INTERVAL_NANOS && !connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                try {
+                    close();
+                } catch (SQLException e) {
+                    // The connection is broken already
+                }
+                open();
+            }
+            lastUsedAt = now;
+
+            return connection;
+        }
+
+        PreparedStatement insertCheckpoint() throws SQLException {
+            connection();
+
+            return insertCheckpoint;
+        }
+
+        private void open() throws SQLException {
+            connection = openConnection();
+            try {
+                insertCheckpoint = connection.prepareStatement(INSERT_CHECKPOINT);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            lastUsedAt = System.nanoTime();
+        }
+
+        void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Override
+    public void runStarted(String job) {
+        try {
+            RunConnection previous = runConnections.put(job, new RunConnection());
+            if (previous != null) {
+                runFinished(previous);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void runFinished(String job) {
+        RunConnection runConnection = runConnections.remove(job);
+        if (runConnection != null) {
+            runFinished(runConnection);
+        }
+    }
+
+    private static void runFinished(RunConnection runConnection) {
+        synchronized (runConnection) {
+            try {
+                runConnection.close();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public Set<Integer> getCompletedPartitions(String job, String runKey, int partitionCount) {
+        RunConnection runConnection = runConnections.get(job);
+        try {
+            if (runConnection != null) {
+                synchronized (runConnection) {
+                    return getCompletedPartitions(runConnection.connection(), job, runKey, partitionCount);
+                }
+            }
+
+            try (Connection connection = openConnection()) {
+                return getCompletedPartitions(connection, job, runKey, partitionCount);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Set<Integer> getCompletedPartitions(
+            Connection connection,
+            String job,
+            String runKey,
+            int partitionCount
+    ) throws SQLException {
+        // Checkpoints of another run are of no use to this one
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM " + TABLE + " WHERE JOB_NAME = ? AND (RUN_KEY <> ? OR PARTITION_COUNT <> ?)"
+        )) {
+            statement.setString(1, job);
+            statement.setString(2, runKey);
+            statement.setInt(3, partitionCount);
+            statement.executeUpdate();
+        }
+
+        Set<Integer> completedPartitions = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT PARTITION_INDEX FROM " + TABLE + " WHERE JOB_NAME = ?"
+        )) {
+            statement.setString(1, job);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    completedPartitions.add(resultSet.getInt(1));
+                }
+            }
+        }
+
+        return completedPartitions;
+    }
+
+    @Override
+    public void partitionCompleted(String job, String runKey, int partitionCount, int partition) {
+        RunConnection runConnection = runConnections.get(job);
+        try {
+            if (runConnection != null) {
+                synchronized (runConnection) {
+                    insertCheckpoint(runConnection.insertCheckpoint(), job, runKey, partitionCount, partition);
+                }
+            } else {
+                try (Connection connection = openConnection();
+                     PreparedStatement statement = connection.prepareStatement(INSERT_CHECKPOINT)) {
+                    insertCheckpoint(statement, job, runKey, partitionCount, partition);
+                }
+            }
+        } catch (SQLException e) {
+            // The partition has already been checkpointed
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static void insertCheckpoint(
+            PreparedStatement statement,
+            String job,
+            String runKey,
+            int partitionCount,
+            int partition
+    ) throws SQLException {
+        statement.setString(1, job);
+        statement.setString(2, runKey);
+        statement.setInt(3, partitionCount);
+        statement.setInt(4, partition);
+        statement.executeUpdate();
+    }
+
+    @Override
+    public void clear(String job) {
+        RunConnection runConnection = runConnections.get(job);
+        try {
+            if (runConnection != null) {
+                synchronized (runConnection) {
+                    deleteCheckpoints(runConnection.connection(), job);
+                }
+            } else {
+                try (Connection connection = openConnection()) {
+                    deleteCheckpoints(connection, job);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void deleteCheckpoints(Connection connection, String job) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + TABLE + " WHERE JOB_NAME = ?")) {
+            statement.setString(1, job);
+            statement.executeUpdate();
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Connection connection = JobStoreConfig.getConnection();
+        if (!tableCreated) {
+            try {
+                createTable(connection);
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        return connection;
+    }
+
+    private synchronized void createTable(Connection connection) throws SQLException {
+        if (tableCreated) {
+            return;
+        }
+
+        if (!JobStoreConfig.hasTable(connection, TABLE)) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE " + TABLE + " ("
+                        + "JOB_NAME VARCHAR(200) NOT NULL, "
+                        + "RUN_KEY VARCHAR(200) NOT NULL, "
+                        + "PARTITION_COUNT INTEGER NOT NULL, "
+                        + "PARTITION_INDEX INTEGER NOT NULL, "
+                        + "PRIMARY KEY (JOB_NAME, PARTITION_INDEX))");
+            } catch (SQLException e) {
+                // Another node may have created it in the meantime
+                if (!JobStoreConfig.hasTable(connection, TABLE)) {
+                    throw e;
+                }
+            }
+        }
+
+        tableCreated = true;
+    }
+}
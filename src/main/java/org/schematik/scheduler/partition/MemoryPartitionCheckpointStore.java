@@ -0,0 +1,46 @@
+package org.schematik.scheduler.partition;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the checkpoints of partitioned jobs in memory, so failed runs are resumed until the application restarts.
+ */
+public class MemoryPartitionCheckpointStore implements IPartitionCheckpointStore {
+    private record Checkpoints(String runKey, int partitionCount, Set<Integer> completedPartitions) {
+        boolean belongsTo(String runKey, int partitionCount) {
+            return this.runKey.equals(runKey) && this.partitionCount == partitionCount;
+        }
+    }
+
+    private final Map<String, Checkpoints> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public Set<Integer> getCompletedPartitions(String job, String runKey, int partitionCount) {
+        Checkpoints jobCheckpoints = checkpoints.get(job);
+        if (jobCheckpoints == null || !jobCheckpoints.belongsTo(runKey, partitionCount)) {
+            checkpoints.remove(job);
+            return Set.of();
+        }
+
+        return Set.copyOf(jobCheckpoints.completedPartitions());
+    }
+
+    @Override
+    public void partitionCompleted(String job, String runKey, int partitionCount, int partition) {
+        checkpoints.compute(job, (ignored, jobCheckpoints) -> {
+            if (jobCheckpoints == null || !jobCheckpoints.belongsTo(runKey, partitionCount)) {
+                jobCheckpoints = new Checkpoints(runKey, partitionCount, ConcurrentHashMap.newKeySet());
+            }
+            jobCheckpoints.completedPartitions().add(partition);
+
+            return jobCheckpoints;
+        });
+    }
+
+    @Override
+    public void clear(String job) {
+        checkpoints.remove(job);
+    }
+}
@@ -0,0 +1,30 @@
+package org.schematik.scheduler.partition;
+
+/**
+ * Progress of a single partition, added up into the progress of its run.
+ */
+public class PartitionProgress {
+    private final PartitionedJobRun run;
+
+    PartitionProgress(PartitionedJobRun run) {
+        this.run = run;
+    }
+
+    /**
+     * Adds to the number of items the partition has to process.
+     */
+    public void addTotal(long items) {
+        run.addItemsTotal(items);
+    }
+
+    /**
+     * Adds to the number of items the partition has processed.
+     */
+    public void advance(long items) {
+        run.addItemsProcessed(items);
+    }
+
+    public void increment() {
+        advance(1);
+    }
+}
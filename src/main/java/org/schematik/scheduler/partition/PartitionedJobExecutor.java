@@ -0,0 +1,187 @@
+package org.schematik.scheduler.partition;
+
+import org.schematik.Application;
+import org.schematik.scheduler.JobStoreConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Runs the partitions of an {@link IPartitionedScheduledJob} in parallel, skipping the partitions that completed in an
+ * earlier run with the same run key. Every partition is checkpointed as soon as it completes. While the partitions
+ * run, the progress of the run is logged every {@code scheduler.partitions.progressIntervalMs} milliseconds, and it is
+ * exposed on the metrics endpoint by {@link PartitionedJobMetrics}.
+ */
+public class PartitionedJobExecutor {
+    static Logger logger = LoggerFactory.getLogger(PartitionedJobExecutor.class);
+
+    private static final Map<String, PartitionedJobRun> runs = new ConcurrentHashMap<>();
+
+    private static volatile IPartitionCheckpointStore defaultCheckpointStore;
+
+    /**
+     * Returns the checkpoint store of jobs that don't choose their own: the database of the job store if it is
+     * persistent, so that checkpoints outlive a restart, and memory otherwise.
+     */
+    public static IPartitionCheckpointStore getDefaultCheckpointStore() {
+        if (defaultCheckpointStore == null) {
+            synchronized (PartitionedJobExecutor.class) {
+                if (defaultCheckpointStore == null) {
+                    defaultCheckpointStore = JobStoreConfig.isPersistent()
+                            ? new JdbcPartitionCheckpointStore()
+                            : new MemoryPartitionCheckpointStore();
+                }
+            }
+        }
+
+        return defaultCheckpointStore;
+    }
+
+    /**
+     * Returns the current or last run of every partitioned job.
+     */
+    public static Collection<PartitionedJobRun> getRuns() {
+        return runs.values();
+    }
+
+    /**
+     * Runs the pending partitions of a job and waits for them. Throws an exception that names the failed partitions if
+     * any of them failed.
+     */
+    public static void execute(IPartitionedScheduledJob job) {
+        String jobName = job.getClass().getName();
+        int partitionCount = job.getPartitionCount();
+        String runKey = job.getRunKey() != null ? job.getRunKey() : "";
+        IPartitionCheckpointStore checkpointStore = job.getCheckpointStore();
+
+        PartitionedJobRun run = new PartitionedJobRun(jobName, partitionCount);
+        runs.put(jobName, run);
+
+        checkpointStore.runStarted(jobName);
+        try {
+            runPartitions(job, run, runKey, checkpointStore);
+        } finally {
+            checkpointStore.runFinished(jobName);
+        }
+    }
+
+    private static void runPartitions(
+            IPartitionedScheduledJob job,
+            PartitionedJobRun run,
+            String runKey,
+            IPartitionCheckpointStore checkpointStore
+    ) {
+        String jobName = run.getJob();
+        int partitionCount = run.getPartitionCount();
+
+        Set<Integer> completedPartitions = checkpointStore.getCompletedPartitions(jobName, runKey, partitionCount);
+        if (!completedPartitions.isEmpty()) {
+            logger.info(String.format(
+                    "Resuming %s: skipping %d of %d partitions completed in an earlier run",
+                    jobName,
+                    completedPartitions.size(),
+                    partitionCount
+            ));
+        }
+
+        int parallelism = Math.max(1, job.getParallelism());
+        ExecutorService executor = job.runsOnVirtualThreads()
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(jobName + "-partition-", 0).factory())
+                : new ForkJoinPool(parallelism);
+        // Fork-join pools are limited by their parallelism, virtual threads are not
+        Semaphore permits = new Semaphore(job.runsOnVirtualThreads() ? parallelism : Integer.MAX_VALUE);
+
+        Map<Integer, Throwable> failures = new ConcurrentSkipListMap<>();
+        List<CompletableFuture<Void>> partitions = new ArrayList<>(partitionCount);
+        boolean finished = false;
+        try {
+            for (int i = 0; i < partitionCount; i++) {
+                int partition = i;
+                if (completedPartitions.contains(partition)) {
+                    run.partitionSkipped();
+                    continue;
+                }
+
+                permits.acquireUninterruptibly();
+                partitions.add(CompletableFuture.runAsync(() -> {
+                    run.partitionStarted();
+                    boolean succeeded = false;
+                    try {
+                        job.processPartition(partition, partitionCount, new PartitionProgress(run));
+                        checkpointStore.partitionCompleted(jobName, runKey, partitionCount, partition);
+                        succeeded = true;
+                    } catch (Exception | Error e) {
+                        failures.put(partition, e);
+                        logger.error(String.format("Partition %d of %s failed", partition, jobName), e);
+                    } finally {
+                        run.partitionFinished(succeeded);
+                        permits.release();
+                    }
+                }, executor));
+            }
+
+            awaitPartitions(run, partitions);
+            finished = true;
+        } finally {
+            if (finished) {
+                executor.shutdown();
+            } else {
+                // The run was interrupted: stop the partitions that haven't finished, they are retried on the next run
+                partitions.forEach(partition -> partition.cancel(true));
+                executor.shutdownNow();
+            }
+            run.finish();
+        }
+
+        if (!failures.isEmpty()) {
+            RuntimeException exception = new RuntimeException(String.format(
+                    "%d of %d partitions of %s failed: %s. They will be retried on the next run.",
+                    failures.size(),
+                    partitionCount,
+                    jobName,
+                    failures.keySet()
+            ));
+            failures.values().forEach(exception::addSuppressed);
+
+            throw exception;
+        }
+
+        checkpointStore.clear(jobName);
+
+        logger.info(String.format(
+                "Completed %s in %d ms (%d partitions, %d items)",
+                jobName,
+                System.currentTimeMillis() - run.getStartedAt(),
+                partitionCount,
+                run.getItemsProcessed()
+        ));
+    }
+
+    private static void awaitPartitions(PartitionedJobRun run, List<CompletableFuture<Void>> partitions) {
+        long progressIntervalMillis = Long.parseLong(
+                Application.getPropertyOrDefault("scheduler.partitions.progressIntervalMs", "10000")
+        );
+        CompletableFuture<Void> allPartitions = CompletableFuture.allOf(partitions.toArray(new CompletableFuture<?>[0]));
+
+        while (true) {
+            try {
+                allPartitions.get(progressIntervalMillis, TimeUnit.MILLISECONDS);
+                return;
+            } catch (TimeoutException e) {
+                logger.info(run.toString());
+            } catch (ExecutionException e) {
+                // All partitions are done, and the failures have been collected per partition
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(String.format("Interrupted while running %s", run.getJob()), e);
+            }
+        }
+    }
+}
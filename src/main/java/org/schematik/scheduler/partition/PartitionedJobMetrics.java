@@ -0,0 +1,40 @@
+package org.schematik.scheduler.partition;
+
+import org.schematik.metrics.IMetricsSource;
+import org.schematik.metrics.IMetricsWriter;
+
+import java.io.IOException;
+
+/**
+ * Exposes the progress of the current or last run of every partitioned job.
+ */
+public class PartitionedJobMetrics implements IMetricsSource {
+    @Override
+    public void collect(IMetricsWriter writer) throws IOException {
+        for (PartitionedJobRun run : PartitionedJobExecutor.getRuns()) {
+            String help = "Partitions of the current or last run of the job, by state.";
+            writer.gauge("schematik_job_partitions", help, run.getCompleted(), "job", run.getJob(), "state", "completed");
+            writer.gauge("schematik_job_partitions", help, run.getRunning(), "job", run.getJob(), "state", "running");
+            writer.gauge("schematik_job_partitions", help, run.getFailed(), "job", run.getJob(), "state", "failed");
+            writer.gauge("schematik_job_partitions", help, run.getPending(), "job", run.getJob(), "state", "pending");
+        }
+
+        for (PartitionedJobRun run : PartitionedJobExecutor.getRuns()) {
+            writer.gauge(
+                    "schematik_job_partition_items_processed",
+                    "Items processed by the current or last run of the job.",
+                    run.getItemsProcessed(),
+                    "job", run.getJob()
+            );
+        }
+
+        for (PartitionedJobRun run : PartitionedJobExecutor.getRuns()) {
+            writer.gauge(
+                    "schematik_job_partition_items_total",
+                    "Items to process in the current or last run of the job, as reported by its partitions.",
+                    run.getItemsTotal(),
+                    "job", run.getJob()
+            );
+        }
+    }
+}
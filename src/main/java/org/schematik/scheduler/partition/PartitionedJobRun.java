@@ -0,0 +1,113 @@
+package org.schematik.scheduler.partition;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Progress of a run of a partitioned job. Partitions skipped because they completed in an earlier run count as
+ * completed. All updates are lock-free.
+ */
+public class PartitionedJobRun {
+    private final String job;
+    private final int partitionCount;
+    private final long startedAt = System.currentTimeMillis();
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final LongAdder itemsProcessed = new LongAdder();
+    private final LongAdder itemsTotal = new LongAdder();
+
+    private volatile boolean finished;
+
+    PartitionedJobRun(String job, int partitionCount) {
+        this.job = job;
+        this.partitionCount = partitionCount;
+    }
+
+    void partitionSkipped() {
+        completed.incrementAndGet();
+    }
+
+    void partitionStarted() {
+        running.incrementAndGet();
+    }
+
+    void partitionFinished(boolean succeeded) {
+        running.decrementAndGet();
+        if (succeeded) {
+            completed.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+    }
+
+    void addItemsProcessed(long items) {
+        itemsProcessed.add(items);
+    }
+
+    void addItemsTotal(long items) {
+        itemsTotal.add(items);
+    }
+
+    void finish() {
+        finished = true;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    public int getRunning() {
+        return running.get();
+    }
+
+    public int getPending() {
+        return Math.max(0, partitionCount - getCompleted() - getFailed() - getRunning());
+    }
+
+    public long getItemsProcessed() {
+        return itemsProcessed.sum();
+    }
+
+    public long getItemsTotal() {
+        return itemsTotal.sum();
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    @Override
+    public String toString() {
+        String items = getItemsTotal() > 0
+                ? String.format(", %d of %d items", getItemsProcessed(), getItemsTotal())
+                : String.format(", %d items", getItemsProcessed());
+
+        return String.format(
+                "%s: %d of %d partitions completed, %d running, %d failed%s",
+                job,
+                getCompleted(),
+                partitionCount,
+                getRunning(),
+                getFailed(),
+                items
+        );
+    }
+}
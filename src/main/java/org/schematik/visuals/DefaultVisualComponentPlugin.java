@@ -15,19 +15,22 @@ public class DefaultVisualComponentPlugin implements ISchematikPlugin {
     public void register() {
         gson = GsonUtils.getDefaultGson();
 
-        JettyServer.instance.app.post(
-                "api/visual-components/{component}/{action}",
-                context -> {
-                    Class<?> componentClass = Class.forName(context.pathParam("component"));
-
-                    if (AbstractVisualComponent.class.isAssignableFrom(componentClass)) {
-                        AbstractVisualComponent componentInstance = (AbstractVisualComponent) context.bodyAsClass(componentClass);
-                        componentClass.getMethod(context.pathParam("action")).invoke(componentInstance);
-
-                        context.result(gson.toJson(componentInstance));
+        // Plugins register in parallel, and Javalin's route registration is not thread-safe
+        synchronized (JettyServer.instance.app) {
+            JettyServer.instance.app.post(
+                    "api/visual-components/{component}/{action}",
+                    context -> {
+                        Class<?> componentClass = Class.forName(context.pathParam("component"));
+
+                        if (AbstractVisualComponent.class.isAssignableFrom(componentClass)) {
+                            AbstractVisualComponent componentInstance = (AbstractVisualComponent) context.bodyAsClass(componentClass);
+                            componentClass.getMethod(context.pathParam("action")).invoke(componentInstance);
+
+                            context.result(gson.toJson(componentInstance));
+                        }
                     }
-                }
-        );
+            );
+        }
     }
 
 
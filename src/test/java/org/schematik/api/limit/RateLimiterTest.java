@@ -0,0 +1,75 @@
+package org.schematik.api.limit;
+
+import io.javalin.http.Context;
+import org.junit.jupiter.api.Test;
+import org.schematik.api.annotation.RateLimitKey;
+import org.schematik.api.security.AuthenticatedPrincipal;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    @Test
+    public void countsNamedPrincipalsByName() {
+        RateLimiter rateLimiter = rateLimiter(RateLimitKey.PRINCIPAL);
+        AuthenticatedPrincipal ada = new AuthenticatedPrincipal("ada", Set.of());
+
+        assertEquals(
+                rateLimiter.clientKey(context("10.0.0.1", Map.of()), ada),
+                rateLimiter.clientKey(context("10.0.0.2", Map.of()), ada)
+        );
+        assertNotEquals(
+                rateLimiter.clientKey(context("10.0.0.1", Map.of()), ada),
+                rateLimiter.clientKey(context("10.0.0.1", Map.of()), new AuthenticatedPrincipal("grace", Set.of()))
+        );
+    }
+
+    @Test
+    public void countsPrincipalsWithoutNameByAddress() {
+        RateLimiter rateLimiter = rateLimiter(RateLimitKey.PRINCIPAL);
+        AuthenticatedPrincipal principal = AuthenticatedPrincipal.withAllRoles(null);
+
+        String firstClient = rateLimiter.clientKey(context("10.0.0.1", Map.of()), principal);
+        String secondClient = rateLimiter.clientKey(context("10.0.0.2", Map.of()), principal);
+
+        assertEquals("address:10.0.0.1", firstClient);
+        assertNotEquals(firstClient, secondClient);
+
+        // One client using up its permits leaves the others theirs
+        assertEquals(0, rateLimiter.tryAcquire(firstClient));
+        assertTrue(rateLimiter.tryAcquire(firstClient) > 0);
+        assertEquals(0, rateLimiter.tryAcquire(secondClient));
+    }
+
+    @Test
+    public void countsApiKeysOnlyOfAuthenticatedRequests() {
+        RateLimiter rateLimiter = rateLimiter(RateLimitKey.API_KEY);
+        Context context = context("10.0.0.1", Map.of(API_KEY_HEADER, "key"));
+
+        assertTrue(rateLimiter.clientKey(context, AuthenticatedPrincipal.withAllRoles(null)).startsWith("apiKey:"));
+        assertEquals("address:10.0.0.1", rateLimiter.clientKey(context, null));
+    }
+
+    private static RateLimiter rateLimiter(RateLimitKey key) {
+        return new RateLimiter("GET /test", 1, 1, key, API_KEY_HEADER, 100, 60000);
+    }
+
+    private static Context context(String ip, Map<String, String> headers) {
+        return (Context) Proxy.newProxyInstance(
+                Context.class.getClassLoader(),
+                new Class<?>[] { Context.class },
+                (proxy, method, arguments) -> switch (method.getName()) {
+                    case "ip" -> ip;
+                    case "header" -> headers.get((String) arguments[0]);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                }
+        );
+    }
+}
@@ -0,0 +1,253 @@
+package org.schematik.gson.processor;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.schematik.api.annotation.Controller;
+import org.schematik.gson.GsonUtils;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compiles sample controllers with the {@link TypeAdapterProcessor} and checks that the generated adapters produce and
+ * accept the same json as Gson's reflective adapters.
+ */
+public class TypeAdapterProcessorTest {
+    private static final String ITEM = """
+            package sample;
+
+            public record Item(String name, int quantity, double price, boolean gift, char grade) {
+            }
+            """;
+
+    private static final String ORDER = """
+            package sample;
+
+            import com.google.gson.annotations.SerializedName;
+
+            import java.util.List;
+            import java.util.Map;
+
+            public class Order extends Entity {
+                @SerializedName(value = "customer_name", alternate = { "customer", "buyer" })
+                String customerName;
+                private int priority;
+                Long reference;
+                List<Item> items;
+                Map<String, List<Item>> itemsByWarehouse;
+                Item[] returns;
+                transient String note;
+            }
+            """;
+
+    private static final String ENTITY = """
+            package sample;
+
+            public class Entity {
+                long id;
+                private String createdBy;
+            }
+            """;
+
+    private static final String CONTROLLER = """
+            package sample;
+
+            import org.schematik.api.annotation.Controller;
+            import org.schematik.api.annotation.parameter.RequestBody;
+            import org.schematik.api.annotation.request.Post;
+
+            import java.util.List;
+
+            @Controller(endpoint = "/orders")
+            public class OrderController {
+                @Post
+                public List<Order> create(@RequestBody Order order) {
+                    return List.of(order);
+                }
+            }
+            """;
+
+    private static final String ORDER_JSON = """
+            {
+              "customer_name": "Ada \\"A\\" Lovelace",
+              "priority": 3,
+              "reference": 9007199254740993,
+              "items": [
+                {"name": "book", "quantity": 2, "price": 12.5, "gift": true, "grade": "A"},
+                null,
+                {"name": null, "quantity": -1, "price": 1e-7, "gift": false, "grade": "\\u00e9"}
+              ],
+              "itemsByWarehouse": {"north": [{"name": "pen", "quantity": 1, "price": 0.0, "gift": false, "grade": "B"}]},
+              "returns": [],
+              "note": "not serialized",
+              "id": 42,
+              "createdBy": "system"
+            }
+            """;
+
+    private static Path outputDirectory;
+    private static URLClassLoader classLoader;
+    private static Gson reflectiveGson;
+    private static Gson generatedGson;
+
+    @BeforeAll
+    public static void compileSamples() throws Exception {
+        outputDirectory = Files.createTempDirectory("type-adapter-processor");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<JavaFileObject> sources = List.of(
+                source("sample.Item", ITEM),
+                source("sample.Entity", ENTITY),
+                source("sample.Order", ORDER),
+                source("sample.OrderController", CONTROLLER)
+        );
+        List<String> options = List.of(
+                "-d", outputDirectory.toString(),
+                "-classpath", classPathOf(Controller.class) + File.pathSeparator + classPathOf(Gson.class)
+        );
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, sources);
+        task.setProcessors(List.of(new TypeAdapterProcessor()));
+        assertTrue(task.call(), "The samples don't compile");
+
+        classLoader = new URLClassLoader(new URL[] { outputDirectory.toUri().toURL() }, Gson.class.getClassLoader());
+        reflectiveGson = GsonUtils.newGsonBuilder().create();
+        generatedGson = withGeneratedAdapters(GsonUtils.newGsonBuilder()).create();
+    }
+
+    @AfterAll
+    public static void deleteSamples() throws IOException {
+        classLoader.close();
+        try (Stream<Path> paths = Files.walk(outputDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void generatesAdapters() throws Exception {
+        for (String type : List.of("sample.Item", "sample.Order")) {
+            String adapter = generatedGson.getAdapter(classLoader.loadClass(type)).getClass().getName();
+            assertEquals(type + "_GsonTypeAdapter", adapter);
+        }
+    }
+
+    @Test
+    public void writesClassesLikeGson() throws Exception {
+        Class<?> order = classLoader.loadClass("sample.Order");
+        Object value = reflectiveGson.fromJson(ORDER_JSON, order);
+
+        assertEquals(reflectiveGson.toJson(value), generatedGson.toJson(value));
+    }
+
+    @Test
+    public void readsClassesLikeGson() throws Exception {
+        assertReadsLikeGson(classLoader.loadClass("sample.Order"), ORDER_JSON);
+    }
+
+    @Test
+    public void readsSerializedNameAlternatesLikeGson() throws Exception {
+        Class<?> order = classLoader.loadClass("sample.Order");
+
+        assertReadsLikeGson(order, "{\"customer\": \"Grace\"}");
+        assertReadsLikeGson(order, "{\"buyer\": \"Grace\", \"customer_name\": \"Ada\"}");
+    }
+
+    @Test
+    public void handlesNullsLikeGson() throws Exception {
+        Class<?> order = classLoader.loadClass("sample.Order");
+        String json = "{\"customer_name\": null, \"priority\": null, \"reference\": null, \"items\": null, \"id\": null}";
+
+        assertReadsLikeGson(order, json);
+        assertReadsLikeGson(order, "null");
+
+        Object value = reflectiveGson.fromJson(json, order);
+        assertEquals(reflectiveGson.toJson(value), generatedGson.toJson(value));
+
+        Gson reflectiveGsonWithNulls = GsonUtils.newGsonBuilder().serializeNulls().create();
+        Gson generatedGsonWithNulls = withGeneratedAdapters(GsonUtils.newGsonBuilder().serializeNulls()).create();
+        assertEquals(reflectiveGsonWithNulls.toJson(value), generatedGsonWithNulls.toJson(value));
+    }
+
+    @Test
+    public void rejectsNullPrimitiveRecordComponentsLikeGson() throws Exception {
+        Class<?> item = classLoader.loadClass("sample.Item");
+        String json = "{\"name\": \"book\", \"quantity\": null}";
+
+        JsonParseException expected = assertThrows(JsonParseException.class, () -> reflectiveGson.fromJson(json, item));
+        JsonParseException actual = assertThrows(JsonParseException.class, () -> generatedGson.fromJson(json, item));
+        assertEquals(expected.getMessage(), actual.getMessage());
+
+        // Missing components keep their default value
+        assertReadsLikeGson(item, "{\"name\": \"book\"}");
+    }
+
+    @Test
+    public void handlesGenericTypesLikeGson() throws Exception {
+        Class<?> order = classLoader.loadClass("sample.Order");
+        TypeToken<?> orders = TypeToken.getParameterized(List.class, order);
+        String json = "[" + ORDER_JSON + ", null, {}]";
+
+        Object value = reflectiveGson.fromJson(json, orders);
+        assertEquals(reflectiveGson.toJson(value), generatedGson.toJson(value));
+        assertEquals(
+                reflectiveGson.toJson(reflectiveGson.fromJson(json, orders)),
+                reflectiveGson.toJson(generatedGson.fromJson(json, orders))
+        );
+    }
+
+    private static void assertReadsLikeGson(Class<?> type, String json) {
+        Function<Gson, String> read = gson -> reflectiveGson.toJson(gson.fromJson(json, type));
+
+        assertEquals(read.apply(reflectiveGson), read.apply(generatedGson));
+    }
+
+    private static GsonBuilder withGeneratedAdapters(GsonBuilder builder) {
+        // The generated adapters are registered as services of the context class loader
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(classLoader);
+        try {
+            return GsonUtils.registerGeneratedTypeAdapters(builder);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private static String classPathOf(Class<?> type) throws URISyntaxException {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+
+    private static JavaFileObject source(String className, String code) {
+        URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+
+        return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}